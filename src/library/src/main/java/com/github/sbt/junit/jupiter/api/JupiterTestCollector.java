@@ -18,17 +18,26 @@
  */
 package com.github.sbt.junit.jupiter.api;
 
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
 import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClasspathRoots;
 import static org.junit.platform.engine.discovery.DiscoverySelectors.selectDirectory;
 
+import com.github.sbt.junit.jupiter.internal.ChangedClassStore;
+import com.github.sbt.junit.jupiter.internal.discovery.ClassLoaderCache;
+import com.github.sbt.junit.jupiter.internal.discovery.IncrementalDiscovery;
 import java.io.File;
 import java.net.URL;
-import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
 import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.platform.engine.DiscoverySelector;
 import org.junit.platform.engine.TestEngine;
 import org.junit.platform.engine.TestSource;
 import org.junit.platform.engine.support.descriptor.ClassSource;
@@ -54,9 +63,19 @@ import sbt.testing.SuiteSelector;
  */
 public class JupiterTestCollector {
 
+  /**
+   * Class loaders over the dependency jars, which are shared by all collectors of this JVM so that
+   * a long-lived SBT server does not reopen unchanged jars for every test discovery.
+   */
+  private static final ClassLoaderCache classLoaderCache = new ClassLoaderCache(16);
+
   private final ClassLoader classLoader;
   private final URL[] runtimeClassPath;
+  private final boolean sharedClassLoaderEnabled;
   private final File classDirectory;
+  private final File discoveryCacheFile;
+  private final File changedClassesFile;
+  private final Map<File, String> classFileStamps;
 
   private final boolean testEngineAutoRegistrationEnabled;
   private final boolean launcherSessionListenerAutoRegistrationEnabled;
@@ -84,8 +103,15 @@ public class JupiterTestCollector {
       return Result.emptyResult();
     }
 
-    final ClassLoader customClassLoader = new URLClassLoader(runtimeClassPath, classLoader);
-    return invokeWithCustomClassLoader(customClassLoader, this::collectTests0);
+    if (sharedClassLoaderEnabled || 0 == runtimeClassPath.length) {
+
+      // the test classes are already loaded by the specified classloader
+      return invokeWithCustomClassLoader(classLoader, this::collectTests0);
+    }
+
+    try (ClassLoaderCache.Lease lease = classLoaderCache.acquire(runtimeClassPath, classLoader)) {
+      return invokeWithCustomClassLoader(lease.classLoader(), this::collectTests0);
+    }
   }
 
   /**
@@ -184,7 +210,11 @@ public class JupiterTestCollector {
 
     private ClassLoader classLoader;
     private URL[] runtimeClassPath = new URL[0];
+    private boolean sharedClassLoaderEnabled = false;
     private File classDirectory;
+    private File discoveryCacheFile;
+    private File changedClassesFile;
+    private Map<File, String> classFileStamps;
 
     private boolean testEngineAutoRegistrationEnabled = true;
     private boolean launcherSessionListenerAutoRegistrationEnabled = true;
@@ -214,7 +244,8 @@ public class JupiterTestCollector {
      * Specifies the runtime classpath which should be used by the collector.
      *
      * @param value The runtime classpath which must contain the test classes, test dependencies and
-     *     JUnit Jupiter dependencies.
+     *     JUnit Jupiter dependencies. If empty (default), tests are discovered using the specified
+     *     classloader only, which allows sharing loaded classes with the test execution.
      * @return This builder.
      */
     public Builder withRuntimeClassPath(URL[] value) {
@@ -223,6 +254,21 @@ public class JupiterTestCollector {
       return this;
     }
 
+    /**
+     * Specifies whether the specified classloader already loads the runtime classpath, e.g. because
+     * it also executes the tests.
+     *
+     * @param value If {@code true}, tests are discovered using the specified classloader only and
+     *     the runtime classpath merely identifies cached discovery results, so that these are
+     *     discarded whenever a dependency changes (default: false).
+     * @return This builder.
+     */
+    public Builder withSharedClassLoaderEnabled(boolean value) {
+
+      this.sharedClassLoaderEnabled = value;
+      return this;
+    }
+
     /**
      * Specifies the class directory which should be searched by the collector.
      *
@@ -235,6 +281,49 @@ public class JupiterTestCollector {
       return this;
     }
 
+    /**
+     * Specifies a file where discovery results are cached between invocations, so that only changed
+     * class files need to be discovered again.
+     *
+     * @param value The cache file or {@code null} to disable caching (default).
+     * @return This builder.
+     */
+    public Builder withDiscoveryCacheFile(File value) {
+
+      this.discoveryCacheFile = value;
+      return this;
+    }
+
+    /**
+     * Specifies a file where test classes are stored, which are affected by class files changed
+     * since the previous discovery, so that the runner can execute them first. Only used if a
+     * discovery cache file is configured.
+     *
+     * @param value The file or {@code null} to not store changed test classes (default).
+     * @return This builder.
+     * @see ChangedClassStore
+     */
+    public Builder withChangedClassesFile(File value) {
+
+      this.changedClassesFile = value;
+      return this;
+    }
+
+    /**
+     * Specifies the stamps of all class files produced by the compiler. If present, changed class
+     * files are detected by comparing these stamps with the cached ones instead of scanning the
+     * class directory. Only used if a discovery cache file is configured.
+     *
+     * @param value The class file stamps by class file or {@code null} to scan the class directory
+     *     (default).
+     * @return This builder.
+     */
+    public Builder withClassFileStamps(Map<File, String> value) {
+
+      this.classFileStamps = value;
+      return this;
+    }
+
     /**
      * Configures the Jupiter Test Discovery Launcher to enable/disable auto registration of test
      * engines. Test engines need to be present on the classpath to be registered automatically.
@@ -383,7 +472,11 @@ public class JupiterTestCollector {
   private JupiterTestCollector(Builder builder) {
 
     this.runtimeClassPath = builder.runtimeClassPath;
+    this.sharedClassLoaderEnabled = builder.sharedClassLoaderEnabled;
     this.classDirectory = builder.classDirectory;
+    this.discoveryCacheFile = builder.discoveryCacheFile;
+    this.changedClassesFile = builder.changedClassesFile;
+    this.classFileStamps = builder.classFileStamps;
     this.classLoader = builder.classLoader;
     this.testEngineAutoRegistrationEnabled = builder.testEngineAutoRegistrationEnabled;
     this.launcherSessionListenerAutoRegistrationEnabled =
@@ -405,17 +498,94 @@ public class JupiterTestCollector {
    * Executes a JUnit Jupiter test discovery and collects the result.
    *
    * @return The result of discovered tests.
+   * @throws Exception If an error occurs
    */
-  private Result collectTests0() {
+  private Result collectTests0() throws Exception {
+
+    List<String> testNames;
+
+    if (null == discoveryCacheFile) {
+      testNames = discoverAll();
+    } else {
+      IncrementalDiscovery discovery =
+          new IncrementalDiscovery(
+              classDirectory.toPath(),
+              discoveryCacheFile.toPath(),
+              cacheKey(),
+              classFileStampsByPath());
+
+      testNames =
+          discovery.discover(
+              new IncrementalDiscovery.Discoverer() {
+                @Override
+                public List<String> discoverAll() {
+                  return JupiterTestCollector.this.discoverAll();
+                }
+
+                @Override
+                public List<String> discoverClasses(Set<String> classNames) {
+                  return JupiterTestCollector.this.discoverClasses(classNames);
+                }
+              });
+
+      if (null != changedClassesFile) {
+        new ChangedClassStore(changedClassesFile.getPath()).add(discovery.getAffectedClasses());
+      }
+    }
+
+    Result result = new Result();
+
+    for (String testName : testNames) {
+
+      Item item = new Item();
+      item.fullyQualifiedClassName = testName;
+      item.selectors.add(new SuiteSelector());
+      item.explicit = false;
+
+      result.discoveredTests.add(item);
+    }
+
+    return result;
+  }
+
+  /**
+   * Discovers all tests of the class directory.
+   *
+   * @return The names of discovered tests.
+   */
+  private List<String> discoverAll() {
 
     Set<Path> classPathRoots = new HashSet<>();
     classPathRoots.add(Paths.get(classDirectory.getAbsolutePath()));
 
-    LauncherDiscoveryRequest request =
+    return discover(
         LauncherDiscoveryRequestBuilder.request()
             .selectors(selectClasspathRoots(classPathRoots))
             .selectors(selectDirectory(classDirectory))
-            .build();
+            .build());
+  }
+
+  /**
+   * Discovers tests of the specified classes only.
+   *
+   * @param classNames The names of the classes which are to be discovered.
+   * @return The names of discovered tests.
+   */
+  private List<String> discoverClasses(Set<String> classNames) {
+
+    List<DiscoverySelector> selectors = new ArrayList<>();
+    classNames.forEach(className -> selectors.add(selectClass(className)));
+
+    return discover(LauncherDiscoveryRequestBuilder.request().selectors(selectors).build());
+  }
+
+  /**
+   * Executes the specified discovery request.
+   *
+   * @param request The discovery request.
+   * @return The names of discovered tests.
+   */
+  private List<String> discover(LauncherDiscoveryRequest request) {
 
     LauncherConfig config =
         LauncherConfig.builder()
@@ -450,30 +620,116 @@ public class JupiterTestCollector {
 
     TestPlan testPlan = LauncherFactory.create(config).discover(request);
 
-    Result result = new Result();
+    List<String> result = new ArrayList<>();
 
     for (TestIdentifier rootIdentifier : testPlan.getRoots()) {
 
       for (TestIdentifier identifier : testPlan.getChildren(rootIdentifier)) {
 
-        fullyQualifiedName(identifier)
-            .ifPresent(
-                fqn -> {
-                  Selector selector = new SuiteSelector();
+        fullyQualifiedName(identifier).ifPresent(result::add);
+      }
+    }
 
-                  Item item = new Item();
-                  item.fullyQualifiedClassName = fqn;
-                  item.selectors.add(selector);
-                  item.explicit = false;
+    return result;
+  }
 
-                  result.discoveredTests.add(item);
-                });
-      }
+  /**
+   * @return The configured class file stamps by path or {@code null} if none are configured.
+   */
+  private Map<Path, String> classFileStampsByPath() {
+
+    if (null == classFileStamps) {
+      return null;
     }
 
+    Map<Path, String> result = new HashMap<>();
+    classFileStamps.forEach((file, stamp) -> result.put(file.toPath(), stamp));
     return result;
   }
 
+  /**
+   * Computes a key which identifies the discovery configuration, so that cached discovery results
+   * are discarded whenever the configuration or the runtime classpath changes.
+   *
+   * <p>Jars are identified by their size and modification time, other directories (e.g. class
+   * directories of dependent projects) by the names, sizes and modification times of their files.
+   * Changes of the class directory itself are detected by incremental discovery instead.
+   *
+   * @return The cache key.
+   * @throws Exception If the key cannot be computed.
+   */
+  private String cacheKey() throws Exception {
+
+    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    StringBuilder b = new StringBuilder();
+
+    b.append(testEngineAutoRegistrationEnabled)
+        .append(launcherSessionListenerAutoRegistrationEnabled)
+        .append(launcherDiscoveryListenerAutoRegistrationEnabled)
+        .append(testExecutionListenerAutoRegistrationEnabled)
+        .append(postDiscoveryFilterAutoRegistrationEnabled)
+        .append('\n')
+        .append(testEngines)
+        .append(launcherSessionListeners)
+        .append(launcherDiscoveryListeners)
+        .append(testExecutionListeners)
+        .append(postDiscoveryFilters)
+        .append('\n');
+
+    for (URL url : runtimeClassPath) {
+      b.append(url);
+      if ("file".equals(url.getProtocol())) {
+        File file = new File(url.toURI());
+        if (file.isFile()) {
+          b.append(':').append(file.length()).append(':').append(file.lastModified());
+        } else if (file.isDirectory() && !file.equals(classDirectory.getAbsoluteFile())) {
+          b.append(':').append(directoryStamp(file.toPath()));
+        }
+      }
+      b.append('\n');
+    }
+
+    return hex(digest.digest(b.toString().getBytes(StandardCharsets.UTF_8)));
+  }
+
+  /**
+   * @param directory The directory to stamp.
+   * @return A digest of the relative names, sizes and modification times of all files within the
+   *     specified directory.
+   * @throws Exception If the directory cannot be read.
+   */
+  private static String directoryStamp(Path directory) throws Exception {
+
+    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    List<Path> files;
+    try (Stream<Path> stream = Files.walk(directory)) {
+      files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+    }
+
+    for (Path file : files) {
+      String stamp =
+          directory.relativize(file)
+              + ":"
+              + Files.size(file)
+              + ":"
+              + Files.getLastModifiedTime(file).toMillis()
+              + "\n";
+      digest.update(stamp.getBytes(StandardCharsets.UTF_8));
+    }
+
+    return hex(digest.digest());
+  }
+
+  private static String hex(byte[] bytes) {
+
+    StringBuilder result = new StringBuilder();
+    for (byte value : bytes) {
+      result.append(String.format("%02x", value));
+    }
+
+    return result.toString();
+  }
+
   private <T> T[] instantiateAll(List<String> fqns, Class<T> type, IntFunction<T[]> arrayFactory) {
 
     T[] instances = arrayFactory.apply(fqns.size());
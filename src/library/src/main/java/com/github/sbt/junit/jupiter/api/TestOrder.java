@@ -0,0 +1,84 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.api;
+
+import com.github.sbt.junit.jupiter.internal.ChangedClassStore;
+import com.github.sbt.junit.jupiter.internal.DurationStore;
+import com.github.sbt.junit.jupiter.internal.FailureStore;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Orders test classes, so that the test classes which most likely fail are executed first.
+ *
+ * <p>SBT executes test classes in the order of their definitions and ignores the order of the tasks
+ * created by a test runner. Therefore test definitions have to be ordered before they are passed to
+ * SBT. Test classes which failed in the previous run come first, followed by test classes which
+ * changed since they have been executed last. Otherwise test classes keep their order.
+ *
+ * @see ChangedClassStore
+ * @see FailureStore
+ */
+public class TestOrder {
+
+  private TestOrder() {}
+
+  /**
+   * Orders the specified test classes.
+   *
+   * @param testClassNames The names of all test classes.
+   * @param durationsFile An optional file with recorded durations (might be {@code null}).
+   * @param failuresFile An optional file with recorded failures (might be {@code null}).
+   * @param changedClassesFile An optional file with changed test classes (might be {@code null}).
+   * @return The names of the test classes in the order they should be executed.
+   */
+  public static List<String> order(
+      Collection<String> testClassNames,
+      File durationsFile,
+      File failuresFile,
+      File changedClassesFile) {
+
+    List<String> result = new ArrayList<>(testClassNames);
+
+    if (null != durationsFile) {
+      DurationStore store = new DurationStore(durationsFile.getPath());
+      result.sort(
+          Comparator.comparingLong(
+                  (String name) -> store.durationNanos(name).orElse(Long.MAX_VALUE))
+              .reversed());
+    }
+
+    if (null != changedClassesFile) {
+      ChangedClassStore store = new ChangedClassStore(changedClassesFile.getPath());
+      // stable sort, so that test classes keep their order by duration otherwise
+      result.sort(Comparator.comparing(store::hasChanged).reversed());
+    }
+
+    if (null != failuresFile) {
+      FailureStore store = new FailureStore(failuresFile.getPath());
+      // stable sort, so that test classes keep their order by changes otherwise
+      result.sort(Comparator.comparing(store::hasFailed).reversed());
+    }
+
+    return result;
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.api;
+
+import com.github.sbt.junit.jupiter.internal.DurationStore;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Partitions test classes into shards, so that a test run can be split across multiple machines.
+ *
+ * <p>The partition only depends on the set of test class names and on the recorded durations (if
+ * any), so every machine computes the same partition from the same discovery result. Test classes
+ * are assigned longest-first to the shard with the lowest total duration. Without recorded
+ * durations every test class weighs the same, which distributes test classes evenly.
+ *
+ * @see DurationStore
+ */
+public class TestShards {
+
+  private TestShards() {}
+
+  /**
+   * Selects the test classes of a single shard.
+   *
+   * @param testClassNames The names of all test classes.
+   * @param shardIndex The zero-based index of the shard to select.
+   * @param shardCount The total number of shards.
+   * @param durationsFile An optional file with recorded durations (might be {@code null}).
+   * @return The names of the test classes which belong to the selected shard.
+   * @throws IllegalArgumentException If the shard index or count are out of range.
+   */
+  public static Set<String> select(
+      Collection<String> testClassNames, int shardIndex, int shardCount, File durationsFile) {
+
+    if (shardCount < 1) {
+      throw new IllegalArgumentException("Shard count must be positive: " + shardCount);
+    }
+
+    if (shardIndex < 0 || shardIndex >= shardCount) {
+      throw new IllegalArgumentException(
+          "Shard index must be in range [0, " + shardCount + "): " + shardIndex);
+    }
+
+    Map<String, Long> weights = weights(new TreeSet<>(testClassNames), durationsFile);
+
+    List<String> sorted = new ArrayList<>(weights.keySet());
+    sorted.sort(Comparator.comparing(weights::get, Comparator.reverseOrder()));
+
+    long[] totals = new long[shardCount];
+    Set<String> result = new HashSet<>();
+
+    for (String name : sorted) {
+
+      int shard = 0;
+      for (int i = 1; i < shardCount; i++) {
+        if (totals[i] < totals[shard]) {
+          shard = i;
+        }
+      }
+
+      totals[shard] += weights.get(name);
+      if (shard == shardIndex) {
+        result.add(name);
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Weighs each test class by its recorded duration. Test classes without a recorded duration weigh
+   * as much as the average recorded test class.
+   *
+   * @return The weights of all test classes, sorted by name.
+   */
+  private static Map<String, Long> weights(Set<String> testClassNames, File durationsFile) {
+
+    Map<String, Long> result = new TreeMap<>();
+    DurationStore store = null == durationsFile ? null : new DurationStore(durationsFile.getPath());
+
+    long known = 0;
+    long total = 0;
+    for (String name : testClassNames) {
+      OptionalLong duration = null == store ? OptionalLong.empty() : store.durationNanos(name);
+      if (duration.isPresent()) {
+        result.put(name, Math.max(1L, duration.getAsLong()));
+        total += result.get(name);
+        known++;
+      }
+    }
+
+    long average = 0 == known ? 1L : Math.max(1L, total / known);
+    for (String name : testClassNames) {
+      result.putIfAbsent(name, average);
+    }
+
+    return result;
+  }
+}
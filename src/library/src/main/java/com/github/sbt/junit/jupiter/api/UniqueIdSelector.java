@@ -0,0 +1,74 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.api;
+
+import java.io.Serializable;
+import java.util.Objects;
+import sbt.testing.Selector;
+
+/**
+ * Selects a single test by its JUnit Platform unique identifier.
+ *
+ * <p>In contrast to a {@link sbt.testing.TestSelector}, whose test name only carries the display
+ * name of an invocation, a unique identifier addresses exactly one invocation of a dynamic or
+ * parameterized test. It is accepted in task definitions passed to the runner, whereas events
+ * reported to SBT still carry the standard selectors.
+ */
+public final class UniqueIdSelector extends Selector implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private final String uniqueId;
+
+  /**
+   * @param uniqueId The unique identifier of the test (e.g. {@code
+   *     [engine:junit-jupiter]/[class:Foo]/[method:bar()]}).
+   */
+  public UniqueIdSelector(String uniqueId) {
+
+    this.uniqueId = Objects.requireNonNull(uniqueId, "uniqueId");
+  }
+
+  /**
+   * @return The unique identifier of the test.
+   */
+  public String uniqueId() {
+
+    return uniqueId;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj instanceof UniqueIdSelector) {
+      return uniqueId.equals(((UniqueIdSelector) obj).uniqueId);
+    }
+
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return uniqueId.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "UniqueIdSelector(" + uniqueId + ")";
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores the test suites whose class files changed since they have been executed last.
+ *
+ * <p>Test suites are added by test discovery whenever it finds changed class files which affect
+ * them (including changed base classes or annotations). They are removed once they have been
+ * executed, so that test suites stay changed across test runs which did not execute them.
+ *
+ * @see StoreFile
+ */
+public class ChangedClassStore {
+
+  private static final String HEADER = "jupiter-changed-classes 1";
+
+  private final StoreFile storeFile;
+  private final Set<String> previous;
+  private final Set<String> executed = ConcurrentHashMap.newKeySet();
+
+  /**
+   * @param storeFile The file where changed test suites are stored.
+   */
+  public ChangedClassStore(String storeFile) {
+
+    this.storeFile = new StoreFile(storeFile, HEADER);
+    this.previous = new TreeSet<>(this.storeFile.read());
+  }
+
+  /**
+   * @param testSuite The fully qualified name of the test suite.
+   * @return {@code True}, if the (top-level class of the) test suite changed since it has been
+   *     executed last.
+   */
+  public boolean hasChanged(String testSuite) {
+
+    return previous.contains(topLevelClass(testSuite));
+  }
+
+  /**
+   * Adds the specified top-level classes and saves the store immediately.
+   *
+   * @param classNames The names of changed top-level classes.
+   */
+  public void add(Collection<String> classNames) {
+
+    if (previous.addAll(classNames)) {
+      storeFile.write(previous);
+    }
+  }
+
+  /**
+   * Records that the specified test suite has been executed.
+   *
+   * @param testSuite The fully qualified name of the test suite.
+   */
+  public void record(String testSuite) {
+
+    executed.add(topLevelClass(testSuite));
+  }
+
+  /** Saves the changed test suites which have not been executed by this run. */
+  public void save() {
+
+    Set<String> result = new TreeSet<>(previous);
+    if (result.removeAll(executed)) {
+      storeFile.write(result);
+    }
+  }
+
+  private static String topLevelClass(String className) {
+
+    int nested = className.indexOf('$');
+    return nested < 0 ? className : className.substring(0, nested);
+  }
+}
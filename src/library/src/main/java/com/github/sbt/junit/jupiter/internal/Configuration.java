@@ -19,6 +19,7 @@
 package com.github.sbt.junit.jupiter.internal;
 
 import com.github.sbt.junit.jupiter.api.JupiterTestListener;
+import com.github.sbt.junit.jupiter.internal.listeners.ExecutionStates;
 import com.github.sbt.junit.jupiter.internal.listeners.FlatPrintingTestListener;
 import com.github.sbt.junit.jupiter.internal.listeners.TreePrintingTestListener;
 import com.github.sbt.junit.jupiter.internal.options.Options;
@@ -27,7 +28,6 @@ import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import org.junit.platform.engine.TestSource;
-import org.junit.platform.engine.UniqueId;
 import org.junit.platform.engine.UniqueId.Segment;
 import org.junit.platform.engine.support.descriptor.ClassSource;
 import org.junit.platform.engine.support.descriptor.ClasspathResourceSource;
@@ -47,12 +47,22 @@ public final class Configuration {
   private final Options options;
   private final TestLogger logger;
   private final ColorTheme colorTheme = new ColorTheme() {};
-  private final String testSuiteName;
+  private final List<String> testSuiteNames;
+  private final ExecutionStates executionStates = new ExecutionStates();
 
   public Configuration(String testSuiteName, Logger[] loggers, Options options) {
 
+    this(Collections.singletonList(testSuiteName), loggers, options);
+  }
+
+  public Configuration(List<String> testSuiteNames, Logger[] loggers, Options options) {
+
+    if (testSuiteNames.isEmpty()) {
+      throw new IllegalArgumentException("At least one test suite name is required");
+    }
+
     this.options = options;
-    this.testSuiteName = testSuiteName;
+    this.testSuiteNames = testSuiteNames;
     this.logger = new TestLogger(loggers, this);
   }
 
@@ -86,7 +96,24 @@ public final class Configuration {
    */
   public String getTestSuiteName() {
 
-    return testSuiteName;
+    return testSuiteNames.get(0);
+  }
+
+  /**
+   * @return The names of all test suites which are executed together (contains at least one
+   *     element).
+   */
+  public List<String> getTestSuiteNames() {
+
+    return testSuiteNames;
+  }
+
+  /**
+   * @return The execution states shared by all listeners of the current task.
+   */
+  public ExecutionStates getExecutionStates() {
+
+    return executionStates;
   }
 
   /**
@@ -151,7 +178,14 @@ public final class Configuration {
    */
   public String formatIdentifier(TestPlan testPlan, TestIdentifier identifier) {
 
-    return new TestIdentifierFormatter(testPlan, identifier).format();
+    // identifiers in flight are formatted at most once
+    return executionStates
+        .find(identifier)
+        .map(
+            state ->
+                state.formattedName(
+                    () -> new TestIdentifierFormatter(testPlan, identifier).format()))
+        .orElseGet(() -> new TestIdentifierFormatter(testPlan, identifier).format());
   }
 
   /**
@@ -191,7 +225,7 @@ public final class Configuration {
     }
 
     if (testSource instanceof ClasspathResourceSource) {
-      return UniqueId.parse(identifier.getUniqueId()).getSegments().stream()
+      return identifier.getUniqueIdObject().getSegments().stream()
           .filter(s -> "suite".equals(s.getType()))
           .map(Segment::getValue)
           .findFirst()
@@ -333,7 +367,7 @@ public final class Configuration {
 
       // When run as part of a suite, the suite engine is the first segment, so look further
       testEngine =
-          UniqueId.parse(identifier.getUniqueId()).getSegments().stream()
+          identifier.getUniqueIdObject().getSegments().stream()
               .filter(segment -> segment.getType().equals("engine"))
               .map(Segment::getValue)
               .reduce((first, last) -> last)
@@ -371,7 +405,7 @@ public final class Configuration {
     private String toName(TestIdentifier identifier) {
 
       String name = identifier.getDisplayName();
-      List<Segment> segments = UniqueId.parse(identifier.getUniqueId()).getSegments();
+      List<Segment> segments = identifier.getUniqueIdObject().getSegments();
 
       if (!segments.isEmpty()) {
         Segment lastSegment = segments.get(segments.size() - 1);
@@ -0,0 +1,111 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stores the durations of test suites from previous runs.
+ *
+ * <p>The duration of a test suite is the elapsed time of its container. When the store is saved, the
+ * durations of the current run replace those of previous runs, while test suites which have not
+ * been executed keep their previous duration.
+ *
+ * @see StoreFile
+ */
+public class DurationStore {
+
+  private static final String HEADER = "jupiter-durations 1";
+
+  private final StoreFile storeFile;
+  private final Map<String, Long> previous;
+  private final Map<String, LongAdder> current = new ConcurrentHashMap<>();
+
+  /**
+   * @param storeFile The file where durations are stored.
+   */
+  public DurationStore(String storeFile) {
+
+    this.storeFile = new StoreFile(storeFile, HEADER);
+    this.previous = load(this.storeFile);
+  }
+
+  /**
+   * Returns the duration of the specified test suite recorded by a previous run.
+   *
+   * @param testSuite The fully qualified name of the test suite.
+   * @return The duration in nanoseconds or an empty optional, if the test suite is unknown.
+   */
+  public OptionalLong durationNanos(String testSuite) {
+
+    Long result = previous.get(testSuite);
+    return null == result ? OptionalLong.empty() : OptionalLong.of(result);
+  }
+
+  /**
+   * Records the duration of a test suite, which is added up if the test suite is executed more than
+   * once by this run.
+   *
+   * @param testSuite The fully qualified name of the test suite.
+   * @param durationNanos The duration of the test suite in nanoseconds.
+   */
+  public void record(String testSuite, long durationNanos) {
+
+    current.computeIfAbsent(testSuite, key -> new LongAdder()).add(durationNanos);
+  }
+
+  /** Saves the durations of previous runs together with those recorded by this run. */
+  public void save() {
+
+    if (current.isEmpty()) {
+      return;
+    }
+
+    Map<String, Long> durations = new TreeMap<>(previous);
+    current.forEach((testSuite, adder) -> durations.put(testSuite, adder.sum()));
+
+    List<String> lines = new ArrayList<>();
+    durations.forEach((testSuite, durationNanos) -> lines.add(durationNanos + "\t" + testSuite));
+    storeFile.write(lines);
+  }
+
+  private static Map<String, Long> load(StoreFile storeFile) {
+
+    Map<String, Long> result = new HashMap<>();
+    try {
+      for (String line : storeFile.read()) {
+        int indexOf = line.indexOf('\t');
+        if (indexOf > 0) {
+          result.put(line.substring(indexOf + 1), Long.parseLong(line.substring(0, indexOf)));
+        }
+      }
+
+      return result;
+    } catch (RuntimeException e) {
+      return new HashMap<>();
+    }
+  }
+}
@@ -0,0 +1,248 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal;
+
+import com.github.sbt.junit.jupiter.api.UniqueIdSelector;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import sbt.testing.Event;
+import sbt.testing.NestedSuiteSelector;
+import sbt.testing.NestedTestSelector;
+import sbt.testing.Selector;
+import sbt.testing.Status;
+import sbt.testing.SuiteSelector;
+import sbt.testing.TestSelector;
+
+/**
+ * Stores the tests which failed in previous runs.
+ *
+ * <p>Failed tests are stored with the selector of their dispatch event, so that they can be
+ * identified down to single (nested) test methods and, by their unique id, down to single
+ * invocations of dynamic or parameterized tests. These selectors allow to rerun exactly the failed
+ * tests (see {@link #failedSelectors(String)}).
+ *
+ * <p>When the store is saved, only the tests which have been executed by this run replace their
+ * previous results, so that the failures of tests which have been skipped or filtered (e.g. by
+ * {@code --tests=}) are kept. A test counts as executed once it succeeded or failed. Failures of a
+ * whole (nested) test suite are discarded as soon as any test of the test suite has been executed.
+ *
+ * @see StoreFile
+ */
+public class FailureStore {
+
+  private static final String HEADER = "jupiter-failures 1";
+
+  private static final String SUITE = "suite";
+  private static final String TEST = "test";
+  private static final String NESTED_SUITE = "nested-suite";
+  private static final String NESTED_TEST = "nested-test";
+  private static final String UNIQUE_ID = "unique-id";
+
+  private final StoreFile storeFile;
+  private final Map<String, List<Selector>> previous;
+  private final Map<String, Map<String, Boolean>> current = new ConcurrentHashMap<>();
+
+  /**
+   * @param storeFile The file where failed tests are stored.
+   */
+  public FailureStore(String storeFile) {
+
+    this.storeFile = new StoreFile(storeFile, HEADER);
+    this.previous = load(this.storeFile);
+  }
+
+  /**
+   * @param testSuite The fully qualified name of the test suite.
+   * @return {@code True}, if any test of the specified test suite failed in a previous run.
+   */
+  public boolean hasFailed(String testSuite) {
+
+    return previous.containsKey(testSuite);
+  }
+
+  /**
+   * @param testSuite The fully qualified name of the test suite.
+   * @return The selectors of the tests which failed in a previous run (might be empty).
+   */
+  public List<Selector> failedSelectors(String testSuite) {
+
+    return previous.getOrDefault(testSuite, Collections.emptyList());
+  }
+
+  /**
+   * Records a dispatched event, which marks its test as executed if it succeeded or failed and
+   * remembers the test if it failed.
+   *
+   * @param event The dispatched event.
+   */
+  public void record(Event event) {
+
+    record(event, event.selector());
+  }
+
+  /**
+   * Records a dispatched event like {@link #record(Event)}, but remembers a failed test with the
+   * specified selector instead of the one of the event.
+   *
+   * @param event The dispatched event.
+   * @param selector The selector which reruns the test of the event.
+   */
+  public void record(Event event, Selector selector) {
+
+    Status status = event.status();
+    if (Status.Success != status && Status.Failure != status && Status.Error != status) {
+      return;
+    }
+
+    current
+        .computeIfAbsent(
+            event.fullyQualifiedName(), key -> Collections.synchronizedMap(new LinkedHashMap<>()))
+        .put(format(event.fullyQualifiedName(), selector), Status.Success != status);
+  }
+
+  /** Saves the failures of previous runs together with those recorded by this run. */
+  public void save() {
+
+    if (current.isEmpty()) {
+      return;
+    }
+
+    Map<String, List<String>> failures = new TreeMap<>();
+    previous.forEach(
+        (testSuite, selectors) -> {
+          List<String> lines = new ArrayList<>();
+          selectors.forEach(selector -> lines.add(format(testSuite, selector)));
+          failures.put(testSuite, lines);
+        });
+
+    current.forEach(
+        (testSuite, results) -> {
+          List<String> lines = merge(previous.get(testSuite), testSuite, results);
+          if (lines.isEmpty()) {
+            failures.remove(testSuite);
+          } else {
+            failures.put(testSuite, lines);
+          }
+        });
+
+    Set<String> lines = new LinkedHashSet<>();
+    failures.values().forEach(lines::addAll);
+    storeFile.write(lines);
+  }
+
+  /**
+   * Merges the previous failures of a test suite with the results of the current run.
+   *
+   * <p>Tests are compared by their formatted lines, since selectors do not reliably implement
+   * {@link Object#equals(Object)}.
+   *
+   * @param previousFailures The previously failed tests (might be {@code null}).
+   * @param testSuite The fully qualified name of the test suite.
+   * @param results Whether a test failed by the formatted selectors of all executed tests.
+   * @return The formatted selectors of all failed tests.
+   */
+  private static List<String> merge(
+      List<Selector> previousFailures, String testSuite, Map<String, Boolean> results) {
+
+    Set<String> result = new LinkedHashSet<>();
+    synchronized (results) {
+      if (null != previousFailures) {
+        for (Selector selector : previousFailures) {
+          String line = format(testSuite, selector);
+          boolean suite =
+              selector instanceof SuiteSelector || selector instanceof NestedSuiteSelector;
+          if (!suite && !results.containsKey(line)) {
+            result.add(line);
+          }
+        }
+      }
+
+      results.forEach(
+          (line, failed) -> {
+            if (failed) {
+              result.add(line);
+            }
+          });
+    }
+
+    return new ArrayList<>(result);
+  }
+
+  private static Map<String, List<Selector>> load(StoreFile storeFile) {
+
+    Map<String, List<Selector>> result = new TreeMap<>();
+    try {
+      for (String line : storeFile.read()) {
+        String[] fields = line.split("\t", -1);
+        result.computeIfAbsent(fields[0], key -> new ArrayList<>()).add(parse(fields));
+      }
+
+      return result;
+    } catch (RuntimeException e) {
+      return new TreeMap<>();
+    }
+  }
+
+  private static String format(String testSuite, Selector selector) {
+
+    if (selector instanceof TestSelector) {
+      return testSuite + '\t' + TEST + '\t' + ((TestSelector) selector).testName();
+    }
+
+    if (selector instanceof NestedTestSelector) {
+      NestedTestSelector nested = (NestedTestSelector) selector;
+      return testSuite + '\t' + NESTED_TEST + '\t' + nested.suiteId() + '\t' + nested.testName();
+    }
+
+    if (selector instanceof UniqueIdSelector) {
+      return testSuite + '\t' + UNIQUE_ID + '\t' + ((UniqueIdSelector) selector).uniqueId();
+    }
+
+    if (selector instanceof NestedSuiteSelector) {
+      return testSuite + '\t' + NESTED_SUITE + '\t' + ((NestedSuiteSelector) selector).suiteId();
+    }
+
+    return testSuite + '\t' + SUITE;
+  }
+
+  private static Selector parse(String[] fields) {
+
+    switch (fields[1]) {
+      case TEST:
+        return new TestSelector(fields[2]);
+      case NESTED_TEST:
+        return new NestedTestSelector(fields[2], fields[3]);
+      case NESTED_SUITE:
+        return new NestedSuiteSelector(fields[2]);
+      case UNIQUE_ID:
+        return new UniqueIdSelector(fields[2]);
+      case SUITE:
+        return new SuiteSelector();
+      default:
+        throw new IllegalArgumentException("Unknown selector: " + fields[1]);
+    }
+  }
+}
@@ -18,41 +18,61 @@
  */
 package com.github.sbt.junit.jupiter.internal;
 
-import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
-import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
 import static org.junit.platform.launcher.TagFilter.excludeTags;
 import static org.junit.platform.launcher.TagFilter.includeTags;
 
 import com.github.sbt.junit.jupiter.api.JupiterTestListener;
 import com.github.sbt.junit.jupiter.api.StreamPair;
 import com.github.sbt.junit.jupiter.internal.event.Dispatcher;
+import com.github.sbt.junit.jupiter.internal.event.EventTraceFormat;
+import com.github.sbt.junit.jupiter.internal.event.EventTraceWriter;
+import com.github.sbt.junit.jupiter.internal.event.FailureRecordingEventHandler;
 import com.github.sbt.junit.jupiter.internal.event.LoggingEventHandler;
+import com.github.sbt.junit.jupiter.internal.event.TaskSelectors;
 import com.github.sbt.junit.jupiter.internal.filter.GlobFilter;
 import com.github.sbt.junit.jupiter.internal.filter.TestFilter;
+import com.github.sbt.junit.jupiter.internal.listeners.DurationRecordingTestListener;
 import com.github.sbt.junit.jupiter.internal.listeners.OutputCapturingTestListener;
 import com.github.sbt.junit.jupiter.internal.listeners.SummaryPrintingTestListener;
 import com.github.sbt.junit.jupiter.internal.options.Options;
 import com.github.sbt.junit.jupiter.internal.options.OptionsParser;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.function.IntFunction;
-import org.junit.platform.engine.DiscoverySelector;
+import java.util.stream.Collectors;
+import org.junit.platform.engine.CancellationToken;
 import org.junit.platform.engine.Filter;
 import org.junit.platform.engine.TestEngine;
+import org.junit.platform.engine.TestExecutionResult;
 import org.junit.platform.launcher.Launcher;
 import org.junit.platform.launcher.LauncherDiscoveryListener;
+import org.junit.platform.launcher.LauncherSession;
 import org.junit.platform.launcher.LauncherSessionListener;
 import org.junit.platform.launcher.PostDiscoveryFilter;
 import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
 import org.junit.platform.launcher.core.LauncherConfig;
 import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.platform.launcher.core.LauncherExecutionRequestBuilder;
 import org.junit.platform.launcher.core.LauncherFactory;
 import sbt.testing.EventHandler;
 import sbt.testing.Logger;
 import sbt.testing.Runner;
+import sbt.testing.Selector;
+import sbt.testing.SuiteSelector;
 import sbt.testing.Task;
 import sbt.testing.TaskDef;
 
@@ -66,6 +86,12 @@ public class JupiterRunner implements Runner {
   private final String[] args;
   private final String[] remoteArgs;
   private final Options options;
+  private LauncherSession launcherSession;
+  private EventTraceWriter traceWriter;
+  private final DurationStore durationStore;
+  private final FailureStore failureStore;
+  private final ChangedClassStore changedClassStore;
+  private final CancellationToken cancellationToken;
 
   public JupiterRunner(
       String[] args,
@@ -78,6 +104,12 @@ public class JupiterRunner implements Runner {
     this.testClassLoader = testClassLoader;
     this.systemStreamPair = systemStreamPair;
     this.options = new OptionsParser().parse(args);
+    this.durationStore = options.getDurationsPath().map(DurationStore::new).orElse(null);
+    this.failureStore = options.getFailuresPath().map(FailureStore::new).orElse(null);
+    this.changedClassStore =
+        options.getChangedClassesPath().map(ChangedClassStore::new).orElse(null);
+    this.cancellationToken =
+        options.isFailFast() ? CancellationToken.create() : CancellationToken.disabled();
   }
 
   @Override
@@ -89,6 +121,16 @@ public class JupiterRunner implements Runner {
   @Override
   public String done() {
 
+    try {
+      closeLauncherSession();
+    } finally {
+      // the stores are saved even if the trace could not be written
+      try {
+        saveStores();
+      } finally {
+        closeTraceWriter();
+      }
+    }
     return "";
   }
 
@@ -101,33 +143,318 @@ public class JupiterRunner implements Runner {
   @Override
   public Task[] tasks(TaskDef[] taskDefs) {
 
-    return Arrays.stream(taskDefs).map(JupiterTask::new).toArray(Task[]::new);
+    if (null != failureStore && options.isRerunFailed()) {
+      taskDefs = failedTaskDefs(taskDefs);
+    }
+
+    List<List<TaskDef>> batches = batches(taskDefs);
+    if (null != durationStore) {
+      batches.sort(Comparator.comparingLong(this::expectedDurationNanos).reversed());
+    }
+
+    if (null != changedClassStore) {
+      // stable sort, so that batches keep their order by duration otherwise
+      batches.sort(Comparator.comparing(this::hasChanged).reversed());
+    }
+
+    if (null != failureStore) {
+      // stable sort, so that batches keep their order by changes and duration otherwise
+      batches.sort(Comparator.comparing(this::hasFailedPreviously).reversed());
+    }
+
+    return batches.stream().map(JupiterTask::new).toArray(Task[]::new);
+  }
+
+  /**
+   * Restricts the specified task definitions to the tests which failed in the previous run.
+   *
+   * <p>Test suites without failures are left out. Test suites which are executed as a whole select
+   * their failed tests instead, unless the test suite itself failed.
+   *
+   * @param taskDefs The task definitions provided by SBT.
+   * @return The task definitions of the failed tests.
+   */
+  private TaskDef[] failedTaskDefs(TaskDef[] taskDefs) {
+
+    List<TaskDef> result = new ArrayList<>();
+    for (TaskDef taskDef : taskDefs) {
+
+      List<Selector> failedSelectors = failureStore.failedSelectors(taskDef.fullyQualifiedName());
+      if (failedSelectors.isEmpty()) {
+        continue;
+      }
+
+      boolean wholeSuite =
+          Arrays.stream(taskDef.selectors()).allMatch(SuiteSelector.class::isInstance);
+      boolean suiteFailed = failedSelectors.stream().anyMatch(SuiteSelector.class::isInstance);
+
+      if (!wholeSuite || suiteFailed) {
+        result.add(taskDef);
+      } else {
+        result.add(
+            new TaskDef(
+                taskDef.fullyQualifiedName(),
+                taskDef.fingerprint(),
+                taskDef.explicitlySpecified(),
+                failedSelectors.toArray(new Selector[0])));
+      }
+    }
+
+    return result.toArray(new TaskDef[0]);
+  }
+
+  /**
+   * @param batch The task definitions of a single batch.
+   * @return {@code True}, if any test suite of the batch changed since it has been executed last.
+   */
+  private boolean hasChanged(List<TaskDef> batch) {
+
+    return batch.stream().map(TaskDef::fullyQualifiedName).anyMatch(changedClassStore::hasChanged);
+  }
+
+  /**
+   * @param batch The task definitions of a single batch.
+   * @return {@code True}, if any test suite of the batch failed in the previous run.
+   */
+  private boolean hasFailedPreviously(List<TaskDef> batch) {
+
+    return batch.stream().map(TaskDef::fullyQualifiedName).anyMatch(failureStore::hasFailed);
+  }
+
+  /**
+   * Estimates the duration of a batch from the durations recorded by previous runs.
+   *
+   * <p>Batches containing a test suite without a recorded duration are expected to take longest, so
+   * that new test suites are started early, too.
+   *
+   * @param batch The task definitions of a single batch.
+   * @return The expected duration in nanoseconds.
+   */
+  private long expectedDurationNanos(List<TaskDef> batch) {
+
+    long result = 0;
+    for (TaskDef taskDef : batch) {
+      OptionalLong durationNanos = durationStore.durationNanos(taskDef.fullyQualifiedName());
+      if (!durationNanos.isPresent()) {
+        return Long.MAX_VALUE;
+      }
+      result += durationNanos.getAsLong();
+    }
+
+    return result;
+  }
+
+  /**
+   * Groups the specified task definitions into batches which are executed by a single task.
+   *
+   * <p>Batching is disabled unless either a batch size greater than one or batching by package has
+   * been requested. Task definitions which select a single test method are never batched.
+   *
+   * @param taskDefs The task definitions provided by SBT.
+   * @return The list of batches (in order of their first task definition).
+   */
+  List<List<TaskDef>> batches(TaskDef[] taskDefs) {
+
+    int batchSize = options.getBatchSize();
+    if (0 == batchSize) {
+      batchSize = options.isBatchByPackage() ? Integer.MAX_VALUE : 1;
+    }
+
+    List<List<TaskDef>> result = new ArrayList<>();
+    Map<String, List<TaskDef>> openBatches = new HashMap<>();
+
+    for (TaskDef taskDef : taskDefs) {
+
+      String name = taskDef.fullyQualifiedName();
+      if (1 == batchSize || name.contains("#")) {
+        result.add(Collections.singletonList(taskDef));
+        continue;
+      }
+
+      String key = options.isBatchByPackage() ? packageName(name) : "";
+      List<TaskDef> batch =
+          openBatches.computeIfAbsent(
+              key,
+              k -> {
+                List<TaskDef> newBatch = new ArrayList<>();
+                result.add(newBatch);
+                return newBatch;
+              });
+
+      batch.add(taskDef);
+      if (batch.size() >= batchSize) {
+        openBatches.remove(key);
+      }
+    }
+
+    return result;
+  }
+
+  private static String packageName(String className) {
+
+    int indexOf = className.lastIndexOf('.');
+    return indexOf < 0 ? "" : className.substring(0, indexOf);
+  }
+
+  /**
+   * Provides the launcher which is shared by all tasks of this runner.
+   *
+   * <p>The underlying {@link LauncherSession} is opened when the first task is executed, so that
+   * test engines, listeners and filters are only instantiated once per run.
+   *
+   * @return The launcher of the current session.
+   */
+  private synchronized Launcher launcher() {
+
+    if (null == launcherSession) {
+      launcherSession = LauncherFactory.openSession(createLauncherConfig());
+    }
+
+    return launcherSession.getLauncher();
+  }
+
+  /** Closes the launcher session, if it has been opened previously. */
+  private synchronized void closeLauncherSession() {
+
+    if (null != launcherSession) {
+      launcherSession.close();
+      launcherSession = null;
+    }
+  }
+
+  /**
+   * Provides the writer for dispatch event traces which is shared by all tasks of this runner.
+   *
+   * @param path The path of the trace file.
+   * @return The trace writer, which is opened on first use.
+   */
+  private synchronized EventTraceWriter traceWriter(String path) {
+
+    if (null == traceWriter) {
+      traceWriter = new EventTraceWriter(path);
+    }
+
+    return traceWriter;
+  }
+
+  /** Saves the results of this run to the configured stores, if any. */
+  private void saveStores() {
+
+    if (null != durationStore) {
+      durationStore.save();
+    }
+    if (null != failureStore) {
+      failureStore.save();
+    }
+    if (null != changedClassStore) {
+      changedClassStore.save();
+    }
+  }
+
+  /** Writes pending dispatch event traces, if any have been written previously. */
+  private synchronized void closeTraceWriter() {
+
+    if (null != traceWriter) {
+      traceWriter.close();
+      traceWriter = null;
+    }
+  }
+
+  private LauncherConfig createLauncherConfig() {
+
+    return LauncherConfig.builder()
+        .enableTestEngineAutoRegistration(options.isTestEngineAutoRegistrationEnabled())
+        .enableLauncherSessionListenerAutoRegistration(
+            options.isLauncherSessionListenerAutoRegistrationEnabled())
+        .enableLauncherDiscoveryListenerAutoRegistration(
+            options.isLauncherDiscoveryListenerAutoRegistrationEnabled())
+        .enableTestExecutionListenerAutoRegistration(
+            options.isTestExecutionListenerAutoRegistrationEnabled())
+        .enablePostDiscoveryFilterAutoRegistration(
+            options.isPostDiscoveryFilterAutoRegistrationEnabled())
+        .addTestEngines(
+            instantiateAll(options.getTestEngines(), TestEngine.class, TestEngine[]::new))
+        .addLauncherSessionListeners(
+            instantiateAll(
+                options.getLauncherSessionListeners(),
+                LauncherSessionListener.class,
+                LauncherSessionListener[]::new))
+        .addLauncherDiscoveryListeners(
+            instantiateAll(
+                options.getLauncherDiscoveryListeners(),
+                LauncherDiscoveryListener.class,
+                LauncherDiscoveryListener[]::new))
+        .addTestExecutionListeners(
+            instantiateAll(
+                options.getTestExecutionListeners(),
+                TestExecutionListener.class,
+                TestExecutionListener[]::new))
+        .addPostDiscoveryFilters(
+            instantiateAll(
+                options.getPostDiscoveryFilters(),
+                PostDiscoveryFilter.class,
+                PostDiscoveryFilter[]::new))
+        .build();
+  }
+
+  private <T> T[] instantiateAll(List<String> fqns, Class<T> type, IntFunction<T[]> arrayFactory) {
+
+    T[] instances = arrayFactory.apply(fqns.size());
+    for (int i = 0; i < fqns.size(); i++) {
+      String fqn = fqns.get(i);
+      try {
+        Class<?> cls = Class.forName(fqn, true, testClassLoader);
+        Object instance = cls.getConstructor().newInstance();
+        if (!type.isInstance(instance)) {
+          throw new IllegalArgumentException("'" + fqn + "' does not implement " + type.getName());
+        }
+        instances[i] = type.cast(instance);
+      } catch (ReflectiveOperationException e) {
+        throw new RuntimeException("Failed to instantiate '" + fqn + "'", e);
+      }
+    }
+    return instances;
   }
 
   /**
    * Jupiter test task.
    *
+   * <p>If batching is enabled, a single task may execute multiple task definitions, in which case
+   * {@link #taskDef()} returns the first of them.
+   *
    * @author Michael Aichler
    */
   class JupiterTask implements Task {
 
     final TaskDef taskDef;
+    final List<TaskDef> taskDefs;
 
-    JupiterTask(TaskDef taskDef) {
+    JupiterTask(List<TaskDef> taskDefs) {
 
-      this.taskDef = taskDef;
+      this.taskDef = taskDefs.get(0);
+      this.taskDefs = taskDefs;
     }
 
+    /**
+     * Provides the SBT tags of all test classes executed by this task.
+     *
+     * @see TaskTags
+     */
     @Override
     public String[] tags() {
 
-      return new String[0];
+      Set<String> result = new LinkedHashSet<>();
+      for (TaskDef def : taskDefs) {
+        result.addAll(TaskTags.of(def.fullyQualifiedName(), testClassLoader));
+      }
+
+      return result.toArray(new String[0]);
     }
 
     @Override
     public Task[] execute(EventHandler eventHandler, Logger[] loggers) {
 
-      return new WithCustomProperties(new JupiterTaskExecutor(loggers, eventHandler, taskDef))
+      return new WithCustomProperties(new JupiterTaskExecutor(loggers, eventHandler, taskDefs))
           .execute();
     }
 
@@ -147,25 +474,142 @@ public class JupiterRunner implements Runner {
 
     final Logger[] loggers;
     final EventHandler eventHandler;
-    final TaskDef taskDef;
+    final List<TaskDef> taskDefs;
 
-    JupiterTaskExecutor(Logger[] loggers, EventHandler eventHandler, TaskDef taskDef) {
+    JupiterTaskExecutor(Logger[] loggers, EventHandler eventHandler, List<TaskDef> taskDefs) {
 
       this.loggers = loggers;
-      this.taskDef = taskDef;
+      this.taskDefs = taskDefs;
       this.eventHandler =
           options
               .getDispatchEventsTracePath()
-              .map(path -> (EventHandler) new LoggingEventHandler(path, eventHandler))
-              .orElse(eventHandler);
+              .map(
+                  path ->
+                      (EventHandler)
+                          new LoggingEventHandler(
+                              traceWriter(path),
+                              EventTraceFormat.of(options.getDispatchEventsTraceFormat()),
+                              recording(synchronizing(eventHandler))))
+              .orElseGet(() -> recording(synchronizing(eventHandler)));
+    }
+
+    /**
+     * Serializes events if tests are executed concurrently, because the event handlers provided by
+     * SBT are not thread-safe.
+     */
+    private EventHandler synchronizing(EventHandler eventHandler) {
+
+      if (!options.isParallel() && !options.isVirtualThreads()) {
+        return eventHandler;
+      }
+
+      return event -> {
+        synchronized (eventHandler) {
+          eventHandler.handle(event);
+        }
+      };
+    }
+
+    private EventHandler recording(EventHandler eventHandler) {
+
+      EventHandler result = eventHandler;
+      if (null != failureStore) {
+        result = new FailureRecordingEventHandler(failureStore, result);
+      }
+
+      return result;
     }
 
     Task[] execute() {
 
-      String testSuiteName = taskDef.fullyQualifiedName();
+      if (options.isVirtualThreads() && taskDefs.size() > 1) {
+        Optional<ExecutorService> executor = VirtualThreads.newExecutor();
+        if (executor.isPresent()) {
+          return executeConcurrently(executor.get());
+        }
+
+        for (Logger logger : loggers) {
+          logger.warn("Virtual threads are not supported, executing test classes sequentially");
+        }
+      }
 
-      Configuration configuration = new Configuration(testSuiteName, loggers, options);
-      Dispatcher dispatcher = new Dispatcher(configuration, eventHandler);
+      return execute(taskDefs);
+    }
+
+    /**
+     * Executes each test suite on its own thread of the specified executor and waits until all of
+     * them have finished. A test suite which fails unexpectedly is reported as an error without
+     * interrupting the test suites which are still running.
+     *
+     * <p>The number of test suites which are executed concurrently is limited by {@code
+     * --virtual-threads=<N>} and defaults to the number of available processors, so that a large
+     * batch does not run all of its test suites against the shared launcher session at once.
+     *
+     * @param executor The executor which is shut down afterwards.
+     * @return An empty array of tasks.
+     */
+    private Task[] executeConcurrently(ExecutorService executor) {
+
+      int limit = options.getVirtualThreadsLimit();
+      Semaphore permits =
+          new Semaphore(0 < limit ? limit : Runtime.getRuntime().availableProcessors());
+
+      List<Future<Task[]>> results = new ArrayList<>();
+      try {
+        for (TaskDef taskDef : taskDefs) {
+          permits.acquire();
+          results.add(
+              executor.submit(
+                  () -> {
+                    try {
+                      return execute(Collections.singletonList(taskDef));
+                    } finally {
+                      permits.release();
+                    }
+                  }));
+        }
+      } catch (InterruptedException e) {
+        executor.shutdownNow();
+        Thread.currentThread().interrupt();
+      } finally {
+        executor.shutdown();
+      }
+
+      for (int i = 0; i < results.size(); i++) {
+        try {
+          results.get(i).get();
+        } catch (InterruptedException e) {
+          executor.shutdownNow();
+          Thread.currentThread().interrupt();
+          break;
+        } catch (ExecutionException e) {
+          executionFailed(taskDefs.get(i), e.getCause());
+        }
+      }
+
+      return new Task[0];
+    }
+
+    private void executionFailed(TaskDef taskDef, Throwable throwable) {
+
+      String name = taskDef.fullyQualifiedName();
+      Configuration configuration =
+          new Configuration(Collections.singletonList(name), loggers, options);
+      new Dispatcher(configuration, eventHandler).executionFailed(name, throwable);
+
+      for (Logger logger : loggers) {
+        logger.error("Failed to execute test class " + name + ": " + throwable);
+        logger.trace(throwable);
+      }
+    }
+
+    private Task[] execute(List<TaskDef> taskDefs) {
+
+      List<String> testSuiteNames =
+          taskDefs.stream().map(TaskDef::fullyQualifiedName).collect(Collectors.toList());
+
+      Configuration configuration = new Configuration(testSuiteNames, loggers, options);
+      Dispatcher dispatcher = new Dispatcher(configuration, eventHandler, cancellationToken);
 
       SummaryPrintingTestListener summaryListener = new SummaryPrintingTestListener(configuration);
       TestExecutionListener outputCapturingListener =
@@ -175,93 +619,70 @@ public class JupiterRunner implements Runner {
 
       try {
         LauncherDiscoveryRequestBuilder builder = LauncherDiscoveryRequestBuilder.request();
-        builder.selectors(testSelector(testSuiteName));
+        taskDefs.forEach(taskDef -> builder.selectors(TaskSelectors.of(taskDef, testClassLoader)));
         builder.filters(testFilters(dispatcher));
 
-        LauncherConfig launcherConfig =
-            LauncherConfig.builder()
-                .enableTestEngineAutoRegistration(options.isTestEngineAutoRegistrationEnabled())
-                .enableLauncherSessionListenerAutoRegistration(
-                    options.isLauncherSessionListenerAutoRegistrationEnabled())
-                .enableLauncherDiscoveryListenerAutoRegistration(
-                    options.isLauncherDiscoveryListenerAutoRegistrationEnabled())
-                .enableTestExecutionListenerAutoRegistration(
-                    options.isTestExecutionListenerAutoRegistrationEnabled())
-                .enablePostDiscoveryFilterAutoRegistration(
-                    options.isPostDiscoveryFilterAutoRegistrationEnabled())
-                .addTestEngines(
-                    instantiateAll(options.getTestEngines(), TestEngine.class, TestEngine[]::new))
-                .addLauncherSessionListeners(
-                    instantiateAll(
-                        options.getLauncherSessionListeners(),
-                        LauncherSessionListener.class,
-                        LauncherSessionListener[]::new))
-                .addLauncherDiscoveryListeners(
-                    instantiateAll(
-                        options.getLauncherDiscoveryListeners(),
-                        LauncherDiscoveryListener.class,
-                        LauncherDiscoveryListener[]::new))
-                .addTestExecutionListeners(
-                    instantiateAll(
-                        options.getTestExecutionListeners(),
-                        TestExecutionListener.class,
-                        TestExecutionListener[]::new))
-                .addPostDiscoveryFilters(
-                    instantiateAll(
-                        options.getPostDiscoveryFilters(),
-                        PostDiscoveryFilter.class,
-                        PostDiscoveryFilter[]::new))
-                .build();
-
-        Launcher launcher = LauncherFactory.create(launcherConfig);
-
-        launcher.registerTestExecutionListeners(dispatcher);
-        launcher.registerTestExecutionListeners(outputCapturingListener);
-        launcher.registerTestExecutionListeners(summaryListener);
-        launcher.registerTestExecutionListeners(testListener);
-
-        configuration
-            .createRunListener(testClassLoader)
-            .ifPresent(launcher::registerTestExecutionListeners);
-
-        launcher.execute(builder.build(), new TestExecutionListener[0]);
+        if (options.isParallel()) {
+          ParallelExecution.configure(builder);
+        }
+
+        List<TestExecutionListener> listeners = new ArrayList<>();
+        listeners.add(configuration.getExecutionStates());
+        listeners.add(dispatcher);
+        listeners.add(outputCapturingListener);
+        listeners.add(summaryListener);
+        listeners.add(testListener);
+
+        configuration.createRunListener(testClassLoader).ifPresent(listeners::add);
+
+        if (null != durationStore) {
+          listeners.add(
+              new DurationRecordingTestListener(
+                  durationStore, configuration.getExecutionStates(), wholeSuiteNames(taskDefs)));
+        }
+
+        if (options.isFailFast()) {
+          listeners.add(new CancellingTestListener());
+        }
+
+        launcher()
+            .execute(
+                LauncherExecutionRequestBuilder.request(builder.build())
+                    .listeners(listeners.toArray(new TestExecutionListener[0]))
+                    .cancellationToken(cancellationToken)
+                    .build());
+
+        if (null != changedClassStore) {
+          testSuiteNames.forEach(changedClassStore::record);
+        }
 
         return new Task[0];
       } catch (Throwable t) {
-        dispatcher.executionFailed(testSuiteName, t);
+        testSuiteNames.forEach(name -> dispatcher.executionFailed(name, t));
         t.printStackTrace();
         return new Task[0];
       }
     }
 
-    private DiscoverySelector testSelector(String testClassName) {
-
-      if (testClassName.contains("#")) {
-        return selectMethod(testClassName);
+    /**
+     * Determines the test suites which are executed as a whole, so that their durations are
+     * representative. Runs filtered by test names do not record any durations.
+     *
+     * @param taskDefs The task definitions which are executed.
+     * @return The names of the test suites whose durations should be recorded.
+     */
+    private Set<String> wholeSuiteNames(List<TaskDef> taskDefs) {
+
+      if (!options.getTestFilters().isEmpty() || !options.getGlobPatterns().isEmpty()) {
+        return Collections.emptySet();
       }
 
-      return selectClass(testClassName);
-    }
-
-    private <T> T[] instantiateAll(
-        List<String> fqns, Class<T> type, IntFunction<T[]> arrayFactory) {
-
-      T[] instances = arrayFactory.apply(fqns.size());
-      for (int i = 0; i < fqns.size(); i++) {
-        String fqn = fqns.get(i);
-        try {
-          Class<?> cls = Class.forName(fqn, true, testClassLoader);
-          Object instance = cls.getConstructor().newInstance();
-          if (!type.isInstance(instance)) {
-            throw new IllegalArgumentException(
-                "'" + fqn + "' does not implement " + type.getName());
-          }
-          instances[i] = type.cast(instance);
-        } catch (ReflectiveOperationException e) {
-          throw new RuntimeException("Failed to instantiate '" + fqn + "'", e);
-        }
-      }
-      return instances;
+      return taskDefs.stream()
+          .filter(
+              taskDef ->
+                  Arrays.stream(taskDef.selectors()).allMatch(SuiteSelector.class::isInstance))
+          .map(TaskDef::fullyQualifiedName)
+          .collect(Collectors.toSet());
     }
 
     private Filter<?>[] testFilters(Dispatcher dispatcher) {
@@ -283,6 +704,23 @@ public class JupiterRunner implements Runner {
     }
   }
 
+  /**
+   * Requests the cancellation of all remaining tests of this runner after the first failure.
+   *
+   * <p>Tests which have not been started yet are reported as skipped, which includes the tests of
+   * all tasks which are executed afterwards.
+   */
+  class CancellingTestListener implements TestExecutionListener {
+
+    @Override
+    public void executionFinished(TestIdentifier identifier, TestExecutionResult result) {
+
+      if (TestExecutionResult.Status.FAILED == result.getStatus()) {
+        cancellationToken.cancel();
+      }
+    }
+  }
+
   class WithCustomProperties {
 
     private final JupiterTaskExecutor wrapped;
@@ -0,0 +1,65 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal;
+
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+
+/**
+ * Configures JUnit Jupiter's parallel execution for the tests of a single task.
+ *
+ * <p>Parallel execution is always enabled, while test classes and test methods are executed
+ * concurrently by default. The default execution modes (as well as all other {@code
+ * junit.jupiter.execution.parallel.*} parameters) can still be changed through system properties or
+ * the {@code junit-platform.properties} file.
+ */
+class ParallelExecution {
+
+  static final String ENABLED = "junit.jupiter.execution.parallel.enabled";
+  static final String MODE_DEFAULT = "junit.jupiter.execution.parallel.mode.default";
+  static final String MODE_CLASSES_DEFAULT =
+      "junit.jupiter.execution.parallel.mode.classes.default";
+
+  private ParallelExecution() {}
+
+  /**
+   * @param builder The builder of the discovery request which should be executed in parallel.
+   */
+  static void configure(LauncherDiscoveryRequestBuilder builder) {
+
+    builder.configurationParameter(ENABLED, "true");
+
+    // resolves parameters the same way the launcher does, including the properties file
+    ConfigurationParameters parameters = builder.build().getConfigurationParameters();
+    configureDefault(builder, parameters, MODE_DEFAULT, "concurrent");
+    configureDefault(builder, parameters, MODE_CLASSES_DEFAULT, "concurrent");
+  }
+
+  private static void configureDefault(
+      LauncherDiscoveryRequestBuilder builder,
+      ConfigurationParameters parameters,
+      String key,
+      String value) {
+
+    // explicit configuration parameters take precedence over all other sources
+    if (!parameters.get(key).isPresent()) {
+      builder.configurationParameter(key, value);
+    }
+  }
+}
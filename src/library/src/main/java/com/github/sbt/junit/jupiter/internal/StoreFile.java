@@ -0,0 +1,113 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A line based file which stores information about previous test runs, like {@link DurationStore}
+ * and {@link FailureStore}.
+ *
+ * <p>The stored information is a pure optimization, so a missing or unreadable file is treated as
+ * empty and failures to write it are ignored. Files are replaced atomically, so that concurrent
+ * test runs never read a partially written file.
+ */
+class StoreFile {
+
+  private final Path path;
+  private final String header;
+
+  /**
+   * @param path The path of the file.
+   * @param header The first line of the file, which identifies its format and version.
+   */
+  StoreFile(String path, String header) {
+
+    this.path = Paths.get(path);
+    this.header = header;
+  }
+
+  /**
+   * @return The lines following the header or an empty list, if the file is missing, unreadable or
+   *     has a different header.
+   */
+  List<String> read() {
+
+    if (!Files.isRegularFile(path)) {
+      return Collections.emptyList();
+    }
+
+    try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+
+      if (!header.equals(reader.readLine())) {
+        return Collections.emptyList();
+      }
+
+      List<String> result = new ArrayList<>();
+      String line;
+      while (null != (line = reader.readLine())) {
+        result.add(line);
+      }
+
+      return result;
+    } catch (IOException e) {
+      return Collections.emptyList();
+    }
+  }
+
+  /**
+   * Replaces the file with the header followed by the specified lines.
+   *
+   * @param lines The lines which are to be written.
+   */
+  void write(Iterable<String> lines) {
+
+    try {
+      Path directory = path.toAbsolutePath().getParent();
+      Files.createDirectories(directory);
+
+      Path tempFile = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+      try {
+        try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+          writer.write(header);
+          writer.newLine();
+          for (String line : lines) {
+            writer.write(line);
+            writer.newLine();
+          }
+        }
+        Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING);
+      } finally {
+        Files.deleteIfExists(tempFile);
+      }
+    } catch (IOException e) {
+      // the stored information only affects the order of tasks, so the test run is still valid
+    }
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.junit.jupiter.api.parallel.ResourceLock;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.junit.platform.engine.support.hierarchical.ExclusiveResource;
+
+/**
+ * Derives SBT task tags from the annotations of a test class.
+ *
+ * <p>The following tags are created, so that they can be used with SBT's {@code
+ * concurrentRestrictions}:
+ *
+ * <ul>
+ *   <li>The value of each {@link Tag @Tag}, for example {@code database}.
+ *   <li>{@code resource-lock:<key>} for each {@link ResourceLock @ResourceLock}.
+ *   <li>{@code isolated} if the class is annotated with {@link Isolated @Isolated}.
+ * </ul>
+ *
+ * <p>Annotations are looked up like JUnit Jupiter does, i.e. including inherited and
+ * meta-annotations.
+ */
+class TaskTags {
+
+  static final String ISOLATED = "isolated";
+  static final String RESOURCE_LOCK_PREFIX = "resource-lock:";
+
+  private TaskTags() {}
+
+  /**
+   * @param testClassName The name of the test class, optionally followed by {@code #method}.
+   * @param classLoader The class loader used to load the test class.
+   * @return The tags of the test class or an empty set, if the class cannot be loaded.
+   */
+  static Set<String> of(String testClassName, ClassLoader classLoader) {
+
+    int indexOf = testClassName.indexOf('#');
+    String className = indexOf < 0 ? testClassName : testClassName.substring(0, indexOf);
+
+    try {
+      return of(Class.forName(className, false, classLoader));
+    } catch (ClassNotFoundException | LinkageError e) {
+      return new LinkedHashSet<>();
+    }
+  }
+
+  /**
+   * @param testClass The test class.
+   * @return The tags of the test class (might be empty).
+   */
+  static Set<String> of(Class<?> testClass) {
+
+    Set<String> result = new LinkedHashSet<>();
+
+    for (Tag tag : AnnotationSupport.findRepeatableAnnotations(testClass, Tag.class)) {
+      String value = tag.value().trim();
+      if (!value.isEmpty()) {
+        result.add(value);
+      }
+    }
+
+    for (ResourceLock lock :
+        AnnotationSupport.findRepeatableAnnotations(testClass, ResourceLock.class)) {
+      // @Isolated is meta-annotated with a lock on the global resource
+      if (!lock.value().isEmpty() && !ExclusiveResource.GLOBAL_KEY.equals(lock.value())) {
+        result.add(RESOURCE_LOCK_PREFIX + lock.value());
+      }
+    }
+
+    if (AnnotationSupport.isAnnotated(testClass, Isolated.class)) {
+      result.add(ISOLATED);
+    }
+
+    return result;
+  }
+}
@@ -23,6 +23,11 @@ import java.text.MessageFormat;
 import sbt.testing.Logger;
 
 /**
+ * Logs messages to all loggers provided by SBT.
+ *
+ * <p>Messages are logged while holding the lock of this logger, so that multi-line messages (like
+ * stack traces) of concurrently executed tests do not interleave.
+ *
  * @author Michael Aichler
  * @author Original JUnit Interface Developers
  */
@@ -78,7 +83,7 @@ public class TestLogger {
    * @param message The error message.
    * @param t The throwable which describes the error.
    */
-  public void error(String testClassName, String message, Throwable t) {
+  public synchronized void error(String testClassName, String message, Throwable t) {
 
     log(Level.ERROR, message);
 
@@ -117,6 +122,17 @@ public class TestLogger {
     log(Level.WARN, pattern, arguments);
   }
 
+  /**
+   * Runs the specified action while holding the lock of this logger, so that all messages logged by
+   * the action are logged as one contiguous block.
+   *
+   * @param action The action which logs the messages.
+   */
+  public synchronized void atomically(Runnable action) {
+
+    action.run();
+  }
+
   /**
    * Provide a log message with the specified level to available loggers.
    *
@@ -124,7 +140,7 @@ public class TestLogger {
    * @param message The log message pattern (see {@link MessageFormat}).
    * @param args An optional list of pattern arguments.
    */
-  private void log(Level level, String message, Object... args) {
+  private synchronized void log(Level level, String message, Object... args) {
 
     if (args.length > 0) {
       message = MessageFormat.format(message, args);
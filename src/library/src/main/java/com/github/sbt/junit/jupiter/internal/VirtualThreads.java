@@ -0,0 +1,69 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Provides virtual threads if the running JVM supports them.
+ *
+ * <p>The runtime library targets Java 17, so {@code Executors.newVirtualThreadPerTaskExecutor()} is
+ * looked up reflectively.
+ */
+class VirtualThreads {
+
+  private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = lookup();
+
+  private VirtualThreads() {}
+
+  /**
+   * @return An executor which starts a new virtual thread for each task or an empty optional, if
+   *     virtual threads are not supported.
+   */
+  static Optional<ExecutorService> newExecutor() {
+
+    if (null == NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR) {
+      return Optional.empty();
+    }
+
+    try {
+      return Optional.of((ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invokeExact());
+    } catch (Throwable t) {
+      return Optional.empty();
+    }
+  }
+
+  private static MethodHandle lookup() {
+
+    try {
+      return MethodHandles.publicLookup()
+          .findStatic(
+              Executors.class,
+              "newVirtualThreadPerTaskExecutor",
+              MethodType.methodType(ExecutorService.class));
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+}
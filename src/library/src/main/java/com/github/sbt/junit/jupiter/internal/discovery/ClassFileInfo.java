@@ -0,0 +1,265 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal.discovery;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Minimal class file reader which extracts the information relevant for test discovery.
+ *
+ * <p>Besides the name of the class, the names of its super class, implemented interfaces and all
+ * runtime visible annotation types (on the class, its fields and methods) are collected. Any of
+ * those might turn a class into a test class, so they are treated as its dependencies.
+ */
+final class ClassFileInfo {
+
+  private static final int MAGIC = 0xCAFEBABE;
+
+  private static final int CONSTANT_UTF8 = 1;
+  private static final int CONSTANT_INTEGER = 3;
+  private static final int CONSTANT_FLOAT = 4;
+  private static final int CONSTANT_LONG = 5;
+  private static final int CONSTANT_DOUBLE = 6;
+  private static final int CONSTANT_CLASS = 7;
+  private static final int CONSTANT_STRING = 8;
+  private static final int CONSTANT_FIELDREF = 9;
+  private static final int CONSTANT_METHODREF = 10;
+  private static final int CONSTANT_INTERFACE_METHODREF = 11;
+  private static final int CONSTANT_NAME_AND_TYPE = 12;
+  private static final int CONSTANT_METHOD_HANDLE = 15;
+  private static final int CONSTANT_METHOD_TYPE = 16;
+  private static final int CONSTANT_DYNAMIC = 17;
+  private static final int CONSTANT_INVOKE_DYNAMIC = 18;
+  private static final int CONSTANT_MODULE = 19;
+  private static final int CONSTANT_PACKAGE = 20;
+
+  private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+  final String className;
+  final Set<String> dependencies;
+
+  ClassFileInfo(String className, Set<String> dependencies) {
+
+    this.className = className;
+    this.dependencies = dependencies;
+  }
+
+  /**
+   * Reads the specified class file.
+   *
+   * @param file The class file.
+   * @return The extracted class file information.
+   * @throws IOException If the file cannot be read or is not a valid class file.
+   */
+  static ClassFileInfo read(Path file) throws IOException {
+
+    try (InputStream is = new BufferedInputStream(Files.newInputStream(file))) {
+      return new Reader(new DataInputStream(is)).read();
+    }
+  }
+
+  /** Stateful reader of a single class file. */
+  private static class Reader {
+
+    private final DataInputStream in;
+    private final Set<String> dependencies = new LinkedHashSet<>();
+    private String[] utf8;
+    private int[] classNameIndex;
+
+    Reader(DataInputStream in) {
+
+      this.in = in;
+    }
+
+    ClassFileInfo read() throws IOException {
+
+      if (MAGIC != in.readInt()) {
+        throw new IOException("Not a class file");
+      }
+
+      in.readUnsignedShort(); // minor version
+      in.readUnsignedShort(); // major version
+
+      readConstantPool();
+
+      in.readUnsignedShort(); // access flags
+      String className = className(in.readUnsignedShort());
+
+      int superClass = in.readUnsignedShort();
+      if (0 != superClass) {
+        dependencies.add(className(superClass));
+      }
+
+      int interfaceCount = in.readUnsignedShort();
+      for (int i = 0; i < interfaceCount; i++) {
+        dependencies.add(className(in.readUnsignedShort()));
+      }
+
+      readMembers(); // fields
+      readMembers(); // methods
+      readAttributes();
+
+      dependencies.remove(className);
+      return new ClassFileInfo(className, dependencies);
+    }
+
+    private void readConstantPool() throws IOException {
+
+      int count = in.readUnsignedShort();
+      utf8 = new String[count];
+      classNameIndex = new int[count];
+
+      for (int i = 1; i < count; i++) {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+          case CONSTANT_UTF8:
+            utf8[i] = in.readUTF();
+            break;
+          case CONSTANT_CLASS:
+            classNameIndex[i] = in.readUnsignedShort();
+            break;
+          case CONSTANT_STRING:
+          case CONSTANT_METHOD_TYPE:
+          case CONSTANT_MODULE:
+          case CONSTANT_PACKAGE:
+            skip(2);
+            break;
+          case CONSTANT_METHOD_HANDLE:
+            skip(3);
+            break;
+          case CONSTANT_INTEGER:
+          case CONSTANT_FLOAT:
+          case CONSTANT_FIELDREF:
+          case CONSTANT_METHODREF:
+          case CONSTANT_INTERFACE_METHODREF:
+          case CONSTANT_NAME_AND_TYPE:
+          case CONSTANT_DYNAMIC:
+          case CONSTANT_INVOKE_DYNAMIC:
+            skip(4);
+            break;
+          case CONSTANT_LONG:
+          case CONSTANT_DOUBLE:
+            skip(8);
+            i++;
+            break;
+          default:
+            throw new IOException("Unknown constant pool tag " + tag);
+        }
+      }
+    }
+
+    private void readMembers() throws IOException {
+
+      int count = in.readUnsignedShort();
+      for (int i = 0; i < count; i++) {
+        skip(6); // access flags, name index, descriptor index
+        readAttributes();
+      }
+    }
+
+    private void readAttributes() throws IOException {
+
+      int count = in.readUnsignedShort();
+      for (int i = 0; i < count; i++) {
+        String name = utf8[in.readUnsignedShort()];
+        int length = in.readInt();
+        if (RUNTIME_VISIBLE_ANNOTATIONS.equals(name)) {
+          int annotationCount = in.readUnsignedShort();
+          for (int j = 0; j < annotationCount; j++) {
+            readAnnotation();
+          }
+        } else {
+          skip(length);
+        }
+      }
+    }
+
+    private void readAnnotation() throws IOException {
+
+      dependencies.add(descriptorToClassName(utf8[in.readUnsignedShort()]));
+
+      int pairCount = in.readUnsignedShort();
+      for (int i = 0; i < pairCount; i++) {
+        skip(2); // element name index
+        readElementValue();
+      }
+    }
+
+    private void readElementValue() throws IOException {
+
+      int tag = in.readUnsignedByte();
+      switch (tag) {
+        case 'e':
+          skip(4);
+          break;
+        case '@':
+          readAnnotation();
+          break;
+        case '[':
+          int count = in.readUnsignedShort();
+          for (int i = 0; i < count; i++) {
+            readElementValue();
+          }
+          break;
+        default:
+          skip(2);
+          break;
+      }
+    }
+
+    private String className(int index) {
+
+      return utf8[classNameIndex[index]].replace('/', '.');
+    }
+
+    private void skip(int length) throws IOException {
+
+      int remaining = length;
+      while (remaining > 0) {
+        int skipped = in.skipBytes(remaining);
+        if (skipped <= 0) {
+          throw new IOException("Unexpected end of class file");
+        }
+        remaining -= skipped;
+      }
+    }
+  }
+
+  /**
+   * Converts a field descriptor (e.g. {@code Lorg/junit/Test;}) to a class name.
+   *
+   * @param descriptor The field descriptor.
+   * @return The corresponding class name.
+   */
+  static String descriptorToClassName(String descriptor) {
+
+    if (descriptor.startsWith("L") && descriptor.endsWith(";")) {
+      return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+    }
+
+    return descriptor;
+  }
+}
@@ -0,0 +1,343 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal.discovery;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Caches class loaders over the dependency jars of a runtime classpath.
+ *
+ * <p>The first contiguous run of jar files of a classpath is loaded by a cached class loader which
+ * is reused as long as none of these jars changes (by size and modification time). All other
+ * entries (e.g. class directories and jars following them) are loaded by fresh class loaders for
+ * every {@link Lease}: entries preceding the shared jars by a class loader which searches them
+ * before the shared jars, and entries following the shared jars by a class loader on top of both.
+ * This keeps the precedence of the classpath, even though class directories usually precede the
+ * dependency jars.
+ *
+ * <p>Class loaders are closed as soon as they are no longer leased and have either been replaced
+ * because a jar changed, been evicted from the cache or the cache itself has been closed.
+ */
+public class ClassLoaderCache implements AutoCloseable {
+
+  private final Map<Key, Entry> entries;
+
+  /**
+   * @param maximumSize The maximum number of cached dependency class loaders.
+   */
+  public ClassLoaderCache(int maximumSize) {
+
+    if (maximumSize < 1) {
+      throw new IllegalArgumentException("Maximum size must be positive: " + maximumSize);
+    }
+
+    this.entries =
+        new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > maximumSize) {
+              eldest.getValue().retire();
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  /**
+   * Leases a class loader for the specified classpath.
+   *
+   * @param classPath The runtime classpath.
+   * @param parent The parent of the dependency class loader.
+   * @return A lease which must be closed once the class loader is no longer used.
+   */
+  public Lease acquire(URL[] classPath, ClassLoader parent) {
+
+    int start = 0;
+    while (start < classPath.length && !isJar(classPath[start])) {
+      start++;
+    }
+
+    int end = start;
+    while (end < classPath.length && isJar(classPath[end])) {
+      end++;
+    }
+
+    List<URL> jars = Arrays.asList(classPath).subList(start, end);
+
+    Entry entry;
+    synchronized (this) {
+      Key key = new Key(parent, jars);
+      List<String> stamps = stamps(jars);
+
+      entry = entries.get(key);
+      if (null == entry || !entry.stamps.equals(stamps)) {
+        if (null != entry) {
+          entry.retire();
+        }
+        entry = new Entry(new URLClassLoader(jars.toArray(new URL[0]), parent), stamps);
+        entries.put(key, entry);
+      }
+
+      entry.leases++;
+    }
+
+    List<URLClassLoader> classLoaders = new ArrayList<>();
+    ClassLoader result = entry.classLoader;
+
+    if (0 < start) {
+      result =
+          new PrecedingClassLoader(
+              Arrays.copyOfRange(classPath, 0, start), parent, entry.classLoader);
+      classLoaders.add((URLClassLoader) result);
+    }
+
+    if (end < classPath.length) {
+      result = new URLClassLoader(Arrays.copyOfRange(classPath, end, classPath.length), result);
+      classLoaders.add((URLClassLoader) result);
+    }
+
+    return new Lease(entry, result, classLoaders);
+  }
+
+  /** Closes all class loaders which are not leased and those which are leased once released. */
+  @Override
+  public synchronized void close() {
+
+    Iterator<Entry> iterator = entries.values().iterator();
+    while (iterator.hasNext()) {
+      iterator.next().retire();
+      iterator.remove();
+    }
+  }
+
+  /** A leased class loader, which must be closed once it is no longer used. */
+  public class Lease implements AutoCloseable {
+
+    private final Entry entry;
+    private final ClassLoader classLoader;
+    private final List<URLClassLoader> ownClassLoaders;
+    private boolean closed;
+
+    private Lease(Entry entry, ClassLoader classLoader, List<URLClassLoader> ownClassLoaders) {
+
+      this.entry = entry;
+      this.classLoader = classLoader;
+      this.ownClassLoaders = ownClassLoaders;
+    }
+
+    /**
+     * @return The class loader of the whole classpath.
+     */
+    public ClassLoader classLoader() {
+
+      return classLoader;
+    }
+
+    @Override
+    public void close() throws IOException {
+
+      synchronized (ClassLoaderCache.this) {
+        if (closed) {
+          return;
+        }
+
+        closed = true;
+        entry.leases--;
+        entry.closeIfUnused();
+      }
+
+      for (URLClassLoader ownClassLoader : ownClassLoaders) {
+        ownClassLoader.close();
+      }
+    }
+  }
+
+  /**
+   * Loads the classpath entries which precede the shared jars. Classes and resources are looked up
+   * in the parent first, then in these entries and finally in the shared jars.
+   */
+  private static class PrecedingClassLoader extends URLClassLoader {
+
+    static {
+      ClassLoader.registerAsParallelCapable();
+    }
+
+    private final ClassLoader parent;
+    private final URLClassLoader jars;
+
+    PrecedingClassLoader(URL[] urls, ClassLoader parent, URLClassLoader jars) {
+
+      super(urls, jars);
+      this.parent = null == parent ? ClassLoader.getPlatformClassLoader() : parent;
+      this.jars = jars;
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+
+      synchronized (getClassLoadingLock(name)) {
+        Class<?> result = findLoadedClass(name);
+        if (null == result) {
+          try {
+            result = parent.loadClass(name);
+          } catch (ClassNotFoundException e) {
+            try {
+              result = findClass(name);
+            } catch (ClassNotFoundException e2) {
+              result = jars.loadClass(name);
+            }
+          }
+        }
+
+        if (resolve) {
+          resolveClass(result);
+        }
+
+        return result;
+      }
+    }
+
+    @Override
+    public URL getResource(String name) {
+
+      URL result = parent.getResource(name);
+      if (null == result) {
+        result = findResource(name);
+      }
+      if (null == result) {
+        result = jars.findResource(name);
+      }
+
+      return result;
+    }
+
+    @Override
+    public Enumeration<URL> getResources(String name) throws IOException {
+
+      List<URL> result = new ArrayList<>(Collections.list(parent.getResources(name)));
+      result.addAll(Collections.list(findResources(name)));
+      result.addAll(Collections.list(jars.findResources(name)));
+
+      return Collections.enumeration(result);
+    }
+  }
+
+  private static boolean isJar(URL url) {
+
+    File file = toFile(url);
+    return null != file && file.isFile();
+  }
+
+  private static List<String> stamps(List<URL> jars) {
+
+    List<String> result = new ArrayList<>();
+    for (URL jar : jars) {
+      File file = toFile(jar);
+      result.add(null == file ? "" : file.length() + ":" + file.lastModified());
+    }
+
+    return result;
+  }
+
+  private static File toFile(URL url) {
+
+    if (!"file".equals(url.getProtocol())) {
+      return null;
+    }
+
+    try {
+      return new File(url.toURI());
+    } catch (URISyntaxException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private static class Key {
+
+    private final ClassLoader parent;
+    private final List<String> jars = new ArrayList<>();
+
+    Key(ClassLoader parent, List<URL> jars) {
+
+      this.parent = parent;
+      jars.forEach(jar -> this.jars.add(jar.toString()));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof Key) {
+        Key other = (Key) obj;
+        return parent == other.parent && jars.equals(other.jars);
+      }
+
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(System.identityHashCode(parent), jars);
+    }
+  }
+
+  /** A cached class loader, guarded by the enclosing cache. */
+  private static class Entry {
+
+    private final URLClassLoader classLoader;
+    private final List<String> stamps;
+    private int leases;
+    private boolean retired;
+
+    Entry(URLClassLoader classLoader, List<String> stamps) {
+
+      this.classLoader = classLoader;
+      this.stamps = stamps;
+    }
+
+    void retire() {
+
+      retired = true;
+      closeIfUnused();
+    }
+
+    void closeIfUnused() {
+
+      if (retired && 0 == leases) {
+        try {
+          classLoader.close();
+        } catch (IOException e) {
+          // the class loader is discarded anyway
+        }
+      }
+    }
+  }
+}
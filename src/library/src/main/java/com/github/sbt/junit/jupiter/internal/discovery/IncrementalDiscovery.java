@@ -0,0 +1,461 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal.discovery;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Caches test discovery results on disk, so that only changed class files need to be discovered
+ * again.
+ *
+ * <p>Every class file of the class directory is fingerprinted by its size and modification time,
+ * unless stamps of the class files are already known (e.g. from the compiler's analysis), in which
+ * case the class directory is not scanned at all. If a class file changes, the discovery results of
+ * its top-level class are invalidated together with those of all classes which (transitively)
+ * extend it, implement it or are annotated with it. Only the affected classes are then
+ * re-discovered; all other results are replayed from the cache.
+ *
+ * <p>Whenever the cache cannot be used (missing, corrupt or created with a different cache key), a
+ * full discovery is performed.
+ */
+public class IncrementalDiscovery {
+
+  private static final String HEADER = "jupiter-discovery-cache 2";
+  private static final String KEY = "key";
+  private static final String CLASS = "class";
+  private static final String TEST = "test";
+
+  private final Path classDirectory;
+  private final Path cacheFile;
+  private final String cacheKey;
+  private final Map<Path, String> classFileStamps;
+  private Set<String> affectedTopLevelClasses = Collections.emptySet();
+
+  /**
+   * Performs the actual test discovery.
+   *
+   * <p>Results are reported as names of the discovered test items, using the same format as {@link
+   * com.github.sbt.junit.jupiter.api.JupiterTestCollector.Item#getFullyQualifiedClassName()}.
+   */
+  public interface Discoverer {
+
+    /**
+     * @return The names of all tests found in the class directory.
+     * @throws Exception If an error occurs.
+     */
+    List<String> discoverAll() throws Exception;
+
+    /**
+     * @param classNames The names of the classes which are to be discovered.
+     * @return The names of all tests found in the specified classes.
+     * @throws Exception If an error occurs.
+     */
+    List<String> discoverClasses(Set<String> classNames) throws Exception;
+  }
+
+  /**
+   * @param classDirectory The directory containing test classes.
+   * @param cacheFile The file where discovery results are stored.
+   * @param cacheKey Identifies the discovery configuration. Cached results are discarded if the key
+   *     changes.
+   */
+  public IncrementalDiscovery(Path classDirectory, Path cacheFile, String cacheKey) {
+
+    this(classDirectory, cacheFile, cacheKey, null);
+  }
+
+  /**
+   * @param classDirectory The directory containing test classes.
+   * @param cacheFile The file where discovery results are stored.
+   * @param cacheKey Identifies the discovery configuration. Cached results are discarded if the key
+   *     changes.
+   * @param classFileStamps Stamps of all class files by path (might be {@code null}, in which case
+   *     the class directory is scanned). A class file is considered changed, if its stamp differs
+   *     from the cached one.
+   */
+  public IncrementalDiscovery(
+      Path classDirectory, Path cacheFile, String cacheKey, Map<Path, String> classFileStamps) {
+
+    this.classDirectory = classDirectory;
+    this.cacheFile = cacheFile;
+    this.cacheKey = cacheKey;
+    this.classFileStamps = classFileStamps;
+  }
+
+  /**
+   * @return The top-level classes which have been affected by changed class files during the last
+   *     call of {@link #discover(Discoverer)}. Empty, if nothing changed or if there was no usable
+   *     cache to compare with.
+   */
+  public Set<String> getAffectedClasses() {
+
+    return affectedTopLevelClasses;
+  }
+
+  /**
+   * Discovers tests, using cached results for unchanged class files.
+   *
+   * @param discoverer The discoverer which is used for changed classes.
+   * @return The names of all discovered tests.
+   * @throws Exception If an error occurs during discovery.
+   */
+  public List<String> discover(Discoverer discoverer) throws Exception {
+
+    final State previous = load();
+    final Map<String, ClassEntry> classes;
+
+    try {
+      classes = scan(previous);
+    } catch (IOException e) {
+      Files.deleteIfExists(cacheFile);
+      return discoverer.discoverAll();
+    }
+
+    if (null == previous) {
+      List<String> tests = discoverer.discoverAll();
+      trySave(new State(classes, tests));
+      return tests;
+    }
+
+    Set<String> changedClasses = changedClasses(previous.classes, classes);
+    if (changedClasses.isEmpty()) {
+      return previous.tests;
+    }
+
+    Set<String> affectedGroups =
+        affectedClasses(changedClasses, classes.values()).stream()
+            .map(IncrementalDiscovery::group)
+            .collect(Collectors.toSet());
+    affectedTopLevelClasses = Collections.unmodifiableSet(affectedGroups);
+
+    List<String> tests = new ArrayList<>();
+    for (String test : previous.tests) {
+      if (!affectedGroups.contains(group(test))) {
+        tests.add(test);
+      }
+    }
+
+    Set<String> selectedClasses = new LinkedHashSet<>();
+    for (ClassEntry entry : classes.values()) {
+      if (affectedGroups.contains(group(entry.className))) {
+        selectedClasses.add(entry.className);
+      }
+    }
+
+    if (!selectedClasses.isEmpty()) {
+      tests.addAll(discoverer.discoverClasses(selectedClasses));
+    }
+
+    trySave(new State(classes, tests));
+    return tests;
+  }
+
+  /**
+   * Determines the names of all classes which have been added, modified or removed.
+   *
+   * @param previous The previously known class files by path.
+   * @param current The current class files by path.
+   * @return The set of changed class names.
+   */
+  static Set<String> changedClasses(
+      Map<String, ClassEntry> previous, Map<String, ClassEntry> current) {
+
+    Set<String> result = new HashSet<>();
+
+    current.forEach(
+        (path, entry) -> {
+          ClassEntry previousEntry = previous.get(path);
+          if (null == previousEntry || !previousEntry.stamp.equals(entry.stamp)) {
+            result.add(entry.className);
+            if (null != previousEntry) {
+              result.add(previousEntry.className);
+            }
+          }
+        });
+
+    previous.forEach(
+        (path, entry) -> {
+          if (!current.containsKey(path)) {
+            result.add(entry.className);
+          }
+        });
+
+    return result;
+  }
+
+  /**
+   * Expands the specified set of changed classes by all classes which depend on them.
+   *
+   * @param changedClasses The names of changed classes.
+   * @param classes All known classes.
+   * @return The names of all affected classes.
+   */
+  static Set<String> affectedClasses(Set<String> changedClasses, Collection<ClassEntry> classes) {
+
+    Map<String, List<String>> dependents = new HashMap<>();
+    for (ClassEntry entry : classes) {
+      for (String dependency : entry.dependencies) {
+        dependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(entry.className);
+      }
+    }
+
+    Set<String> result = new HashSet<>(changedClasses);
+    Deque<String> queue = new ArrayDeque<>(changedClasses);
+
+    while (!queue.isEmpty()) {
+      for (String dependent : dependents.getOrDefault(queue.poll(), Collections.emptyList())) {
+        if (result.add(dependent)) {
+          queue.add(dependent);
+        }
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * Determines the name of the top-level class to which the specified test or class belongs.
+   *
+   * @param name A class name or test name ({@code Class#method(params)}).
+   * @return The name of the top-level class.
+   */
+  static String group(String name) {
+
+    int end = name.indexOf('#');
+    String className = end < 0 ? name : name.substring(0, end);
+
+    int nested = className.indexOf('$');
+    return nested < 0 ? className : className.substring(0, nested);
+  }
+
+  private Map<String, ClassEntry> scan(State previous) throws IOException {
+
+    Map<String, ClassEntry> previousClasses =
+        null == previous ? Collections.emptyMap() : previous.classes;
+    Map<String, ClassEntry> result = new LinkedHashMap<>();
+
+    Map<Path, String> stamps = null == classFileStamps ? stampClassDirectory() : classFileStamps;
+    Path root = classDirectory.toAbsolutePath();
+
+    List<Path> files =
+        stamps.keySet().stream()
+            .filter(file -> file.toAbsolutePath().startsWith(root))
+            .filter(file -> file.getFileName().toString().endsWith(".class"))
+            .sorted()
+            .collect(Collectors.toList());
+
+    for (Path file : files) {
+
+      String path = root.relativize(file.toAbsolutePath()).toString();
+      path = path.replace(File.separatorChar, '/');
+      String stamp = stamps.get(file);
+
+      ClassEntry entry = previousClasses.get(path);
+      if (null == entry || !entry.stamp.equals(stamp)) {
+        ClassFileInfo info = ClassFileInfo.read(file);
+        entry = new ClassEntry(path, stamp, info.className, info.dependencies);
+      }
+
+      result.put(path, entry);
+    }
+
+    return result;
+  }
+
+  /**
+   * Stamps all class files of the class directory with their size and modification time.
+   *
+   * @return The stamps by class file.
+   * @throws IOException If the class directory cannot be read.
+   */
+  private Map<Path, String> stampClassDirectory() throws IOException {
+
+    Map<Path, String> result = new HashMap<>();
+
+    try (Stream<Path> stream = Files.walk(classDirectory)) {
+      for (Path file : (Iterable<Path>) stream::iterator) {
+        if (file.getFileName().toString().endsWith(".class")) {
+          BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+          if (attributes.isRegularFile()) {
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            result.put(file, attributes.size() + ":" + lastModified);
+          }
+        }
+      }
+    }
+
+    return result;
+  }
+
+  /**
+   * @return The previously stored state or {@code null} if it cannot be used.
+   */
+  private State load() {
+
+    if (!Files.isRegularFile(cacheFile)) {
+      return null;
+    }
+
+    try (BufferedReader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+
+      if (!HEADER.equals(reader.readLine())) {
+        return null;
+      }
+
+      Map<String, ClassEntry> classes = new LinkedHashMap<>();
+      List<String> tests = new ArrayList<>();
+      boolean keyMatches = false;
+
+      String line;
+      while (null != (line = reader.readLine())) {
+        String[] fields = line.split("\t", -1);
+        switch (fields[0]) {
+          case KEY:
+            keyMatches = cacheKey.equals(fields[1]);
+            break;
+          case CLASS:
+            ClassEntry entry = ClassEntry.parse(fields);
+            classes.put(entry.path, entry);
+            break;
+          case TEST:
+            tests.add(fields[1]);
+            break;
+          default:
+            return null;
+        }
+      }
+
+      return keyMatches ? new State(classes, tests) : null;
+    } catch (IOException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  private void trySave(State state) {
+
+    try {
+      save(state);
+    } catch (IOException e) {
+      // the cache is a pure optimization, so the discovery result is still valid
+    }
+  }
+
+  private void save(State state) throws IOException {
+
+    Path directory = cacheFile.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+
+    Path tempFile = Files.createTempFile(directory, cacheFile.getFileName().toString(), ".tmp");
+    try {
+      try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+        writer.write(HEADER);
+        writer.newLine();
+        writer.write(KEY + '\t' + cacheKey);
+        writer.newLine();
+        for (ClassEntry entry : state.classes.values()) {
+          writer.write(entry.format());
+          writer.newLine();
+        }
+        for (String test : state.tests) {
+          writer.write(TEST + '\t' + test);
+          writer.newLine();
+        }
+      }
+      Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /** Cached discovery state. */
+  private static class State {
+
+    final Map<String, ClassEntry> classes;
+    final List<String> tests;
+
+    State(Map<String, ClassEntry> classes, List<String> tests) {
+
+      this.classes = classes;
+      this.tests = tests;
+    }
+  }
+
+  /** Stamp and dependencies of a single class file. */
+  static class ClassEntry {
+
+    final String path;
+    final String stamp;
+    final String className;
+    final Set<String> dependencies;
+
+    ClassEntry(String path, String stamp, String className, Set<String> dependencies) {
+
+      this.path = path;
+      this.stamp = stamp;
+      this.className = className;
+      this.dependencies = dependencies;
+    }
+
+    String format() {
+
+      return CLASS
+          + '\t'
+          + path
+          + '\t'
+          + stamp
+          + '\t'
+          + className
+          + '\t'
+          + String.join(",", dependencies);
+    }
+
+    static ClassEntry parse(String[] fields) {
+
+      Set<String> dependencies =
+          fields[4].isEmpty()
+              ? Collections.emptySet()
+              : new LinkedHashSet<>(Arrays.asList(fields[4].split(",")));
+
+      return new ClassEntry(fields[1], fields[2], fields[3], dependencies);
+    }
+  }
+}
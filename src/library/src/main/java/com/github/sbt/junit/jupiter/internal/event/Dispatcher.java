@@ -20,10 +20,15 @@ package com.github.sbt.junit.jupiter.internal.event;
 
 import com.github.sbt.junit.jupiter.api.JupiterTestFingerprint;
 import com.github.sbt.junit.jupiter.api.JupiterTestListener;
+import com.github.sbt.junit.jupiter.api.UniqueIdSelector;
 import com.github.sbt.junit.jupiter.internal.Configuration;
-import java.util.Map;
+import com.github.sbt.junit.jupiter.internal.listeners.ExecutionStates;
+import com.github.sbt.junit.jupiter.internal.listeners.ExecutionStates.ExecutionState;
+import java.util.LinkedHashSet;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.platform.engine.CancellationToken;
 import org.junit.platform.engine.TestDescriptor;
 import org.junit.platform.engine.TestExecutionResult;
 import org.junit.platform.launcher.TestIdentifier;
@@ -39,110 +44,127 @@ public class Dispatcher implements JupiterTestListener {
   private static final Fingerprint fingerprint = new JupiterTestFingerprint();
 
   private final EventHandler eventHandler;
-  private final Map<TestIdentifier, Boolean> reportedIds = new ConcurrentHashMap<>();
-  private final Map<TestIdentifier, Long> startTimes = new ConcurrentHashMap<>();
-  private final String testSuiteName;
+  private final ExecutionStates executionStates;
+  private final Set<String> testSuiteNames;
+  private final CancellationToken cancellationToken;
 
   public Dispatcher(Configuration configuration, EventHandler eventHandler) {
 
+    this(configuration, eventHandler, CancellationToken.disabled());
+  }
+
+  /**
+   * @param configuration The configuration of the test run.
+   * @param eventHandler The event handler which receives the dispatched events.
+   * @param cancellationToken The token which cancels the test run, if it is requested to.
+   */
+  public Dispatcher(
+      Configuration configuration, EventHandler eventHandler, CancellationToken cancellationToken) {
+
     this.eventHandler = eventHandler;
-    this.testSuiteName = configuration.getTestSuiteName();
+    this.cancellationToken = cancellationToken;
+    this.testSuiteNames = new LinkedHashSet<>(configuration.getTestSuiteNames());
+    this.executionStates = configuration.getExecutionStates();
   }
 
   @Override
   public void executionSkipped(TestIdentifier identifier, String reason) {
 
-    reportedIds.computeIfAbsent(
-        identifier,
-        key -> {
-          final long duration = calculateDuration(key);
-          final TaskName taskName = TaskName.of(testSuiteName, identifier);
-          eventHandler.handle(new DispatchEvent(taskName, Status.Skipped, duration));
-          return true;
-        });
+    // skipped identifiers are never started, so their state is only looked up
+    final Optional<ExecutionState> state = executionStates.find(identifier);
+    if (state.map(ExecutionState::markReported).orElse(true)) {
+      final long durationNanos = state.map(ExecutionState::durationNanos).orElse(0L);
+      final TaskName taskName = taskName(identifier);
+      eventHandler.handle(new DispatchEvent(taskName, Status.Skipped, durationNanos));
+    }
   }
 
   @Override
   public void executionStarted(TestIdentifier identifier) {
 
-    startTimes.computeIfAbsent(identifier, key -> System.currentTimeMillis());
+    executionStates.get(identifier).markStarted();
   }
 
   @Override
   public void executionFailed(String className, Throwable throwable) {
 
-    final TaskName taskName = TaskName.of(testSuiteName, className);
+    final String testSuite =
+        testSuiteNames.contains(className) ? className : testSuiteNames.iterator().next();
+    final TaskName taskName = TaskName.of(testSuite, className);
     eventHandler.handle(new DispatchEvent(taskName, Status.Error, 0L, throwable));
   }
 
   @Override
   public void executionFiltered(TestDescriptor descriptor, String reason) {
 
-    final TaskName taskName = TaskName.of(testSuiteName, TestIdentifier.from(descriptor));
+    final TaskName taskName = taskName(TestIdentifier.from(descriptor));
     eventHandler.handle(new DispatchEvent(taskName, Status.Skipped, 0L));
   }
 
   @Override
   public void executionFinished(TestIdentifier identifier, TestExecutionResult result) {
 
-    reportedIds.computeIfAbsent(
-        identifier,
-        key -> {
-          final Status status;
-          final Throwable throwable = result.getThrowable().orElse(null);
-          final TaskName taskName = TaskName.of(testSuiteName, identifier);
-          final long duration = calculateDuration(identifier);
-
-          // dispatch only tests by default so that number of executed tests
-          // match those from junit-interface
-
-          boolean dispatch = identifier.isTest();
-
-          switch (result.getStatus()) {
-            case ABORTED:
-              status = Status.Canceled;
-              dispatch = true;
-              break;
-            case FAILED:
-              status = Status.Failure;
-              dispatch = true;
-              break;
-            case SUCCESSFUL:
-              status = Status.Success;
-              break;
-            default:
-              status = Status.Pending;
-              dispatch = true;
-              break;
-          }
-
-          if (dispatch) {
-            eventHandler.handle(new DispatchEvent(taskName, status, duration, throwable));
-          }
-
-          return true;
-        });
+    final ExecutionState state = executionStates.get(identifier);
+    if (!state.markReported()) {
+      return;
+    }
+
+    final Status status;
+    final Throwable throwable = result.getThrowable().orElse(null);
+    final long durationNanos = state.durationNanos();
+
+    // dispatch only tests by default so that number of executed tests
+    // match those from junit-interface
+
+    boolean dispatch = identifier.isTest();
+
+    switch (result.getStatus()) {
+      case ABORTED:
+        status = Status.Canceled;
+        // containers are aborted by a cancelled test run (e.g. fail-fast), which is not a
+        // result of the test suite itself
+        dispatch = identifier.isTest() || !cancellationToken.isCancellationRequested();
+        break;
+      case FAILED:
+        status = Status.Failure;
+        dispatch = true;
+        break;
+      case SUCCESSFUL:
+        status = Status.Success;
+        break;
+      default:
+        status = Status.Pending;
+        dispatch = true;
+        break;
+    }
+
+    if (dispatch) {
+      final TaskName taskName = taskName(identifier);
+      eventHandler.handle(new DispatchEvent(taskName, status, durationNanos, throwable));
+    }
   }
 
   static class DispatchEvent implements Event {
 
     final Status status;
     final Throwable throwable;
-    final long duration;
+    final long durationNanos;
     final String className;
     final Selector selector;
+    final Selector rerunSelector;
 
-    DispatchEvent(TaskName name, Status status, long duration) {
-      this(name, status, duration, null);
+    DispatchEvent(TaskName name, Status status, long durationNanos) {
+      this(name, status, durationNanos, null);
     }
 
-    DispatchEvent(TaskName name, Status status, long duration, Throwable throwable) {
+    DispatchEvent(TaskName name, Status status, long durationNanos, Throwable throwable) {
 
       this.status = status;
       this.throwable = throwable;
-      this.duration = duration;
+      this.durationNanos = durationNanos;
       this.className = name.fullyQualifiedName();
       this.selector = toSelector(name);
+      this.rerunSelector = toRerunSelector(name, selector);
     }
 
     /**
@@ -177,6 +199,23 @@ public class Dispatcher implements JupiterTestListener {
       return new SuiteSelector();
     }
 
+    /**
+     * Determines the selector which reruns exactly the test of the specified {@code taskName}.
+     *
+     * @param name The task name.
+     * @param selector The selector reported to SBT.
+     * @return A unique id selector for invocations of dynamic or parameterized tests, otherwise the
+     *     given selector.
+     */
+    static Selector toRerunSelector(TaskName name, Selector selector) {
+
+      if (null != name.invocation() && null != name.uniqueId()) {
+        return new UniqueIdSelector(name.uniqueId());
+      }
+
+      return selector;
+    }
+
     @Override
     public String fullyQualifiedName() {
 
@@ -212,7 +251,25 @@ public class Dispatcher implements JupiterTestListener {
     @Override
     public long duration() {
 
-      return duration;
+      return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+    }
+
+    /**
+     * @return The selector which reruns exactly this test (see {@link #toRerunSelector(TaskName,
+     *     Selector)}).
+     */
+    Selector rerunSelector() {
+
+      return rerunSelector;
+    }
+
+    /**
+     * @return The duration in nanoseconds (the precision of {@link #duration()} is limited to
+     *     milliseconds).
+     */
+    long durationNanos() {
+
+      return durationNanos;
     }
 
     @Override
@@ -222,9 +279,8 @@ public class Dispatcher implements JupiterTestListener {
     }
   }
 
-  private long calculateDuration(TestIdentifier identifier) {
+  private TaskName taskName(TestIdentifier identifier) {
 
-    final long startTime = startTimes.getOrDefault(identifier, 0L);
-    return (0L == startTime ? startTime : System.currentTimeMillis() - startTime);
+    return TaskName.of(TaskName.testSuiteOf(testSuiteNames, identifier), identifier);
   }
 }
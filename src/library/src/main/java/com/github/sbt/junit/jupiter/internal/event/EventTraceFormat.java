@@ -0,0 +1,152 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal.event;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import sbt.testing.Event;
+import sbt.testing.NestedSuiteSelector;
+import sbt.testing.NestedTestSelector;
+import sbt.testing.Selector;
+import sbt.testing.TestSelector;
+
+/**
+ * Defines how dispatch events are written to the trace file.
+ *
+ * @see LoggingEventHandler
+ */
+public enum EventTraceFormat {
+
+  /** One {@code toString()} representation per line (default). */
+  TEXT {
+    @Override
+    String format(Event event) {
+
+      return event.toString();
+    }
+  },
+
+  /** One JSON object per line, suitable for further analysis. */
+  JSONL {
+    @Override
+    String format(Event event) {
+
+      Selector selector = event.selector();
+      String testName = null;
+      String nestedSuiteId = null;
+
+      if (selector instanceof TestSelector) {
+        testName = ((TestSelector) selector).testName();
+      } else if (selector instanceof NestedTestSelector) {
+        testName = ((NestedTestSelector) selector).testName();
+        nestedSuiteId = ((NestedTestSelector) selector).suiteId();
+      } else if (selector instanceof NestedSuiteSelector) {
+        nestedSuiteId = ((NestedSuiteSelector) selector).suiteId();
+      }
+
+      String throwable =
+          event.throwable().isDefined() ? event.throwable().get().getClass().getName() : null;
+
+      StringBuilder builder = new StringBuilder(256);
+      builder.append('{');
+      field(builder, "fullyQualifiedName", event.fullyQualifiedName()).append(',');
+      field(builder, "selector", selector.getClass().getSimpleName()).append(',');
+      field(builder, "testName", testName).append(',');
+      field(builder, "nestedSuiteId", nestedSuiteId).append(',');
+      field(builder, "status", event.status().name()).append(',');
+      builder.append("\"durationNanos\":").append(durationNanos(event)).append(',');
+      field(builder, "thread", Thread.currentThread().getName()).append(',');
+      field(builder, "throwable", throwable);
+      return builder.append('}').toString();
+    }
+  };
+
+  /**
+   * Formats the specified event as a single line. Must be called on the thread which dispatches the
+   * event.
+   *
+   * @param event The event to format.
+   * @return The formatted event (without line separator).
+   */
+  abstract String format(Event event);
+
+  /**
+   * @param name The format name (case insensitive).
+   * @return The matching format.
+   * @throws IllegalArgumentException If the name does not denote a known format.
+   */
+  public static EventTraceFormat of(String name) {
+
+    try {
+      return valueOf(name.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          "Invalid trace format '" + name + "': expected 'text' or 'jsonl'");
+    }
+  }
+
+  /**
+   * @return The duration of the specified event in nanoseconds or {@code -1}, if it is unknown.
+   */
+  private static long durationNanos(Event event) {
+
+    if (event instanceof Dispatcher.DispatchEvent) {
+      return ((Dispatcher.DispatchEvent) event).durationNanos();
+    }
+
+    return event.duration() < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(event.duration());
+  }
+
+  private static StringBuilder field(StringBuilder builder, String name, String value) {
+
+    builder.append('"').append(name).append("\":");
+    if (null == value) {
+      return builder.append("null");
+    }
+
+    builder.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          builder.append("\\\"");
+          break;
+        case '\\':
+          builder.append("\\\\");
+          break;
+        case '\n':
+          builder.append("\\n");
+          break;
+        case '\r':
+          builder.append("\\r");
+          break;
+        case '\t':
+          builder.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            builder.append(String.format("\\u%04x", (int) c));
+          } else {
+            builder.append(c);
+          }
+      }
+    }
+    return builder.append('"');
+  }
+}
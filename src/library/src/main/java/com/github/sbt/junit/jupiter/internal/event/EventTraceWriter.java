@@ -0,0 +1,135 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal.event;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends trace lines to a file on a background thread.
+ *
+ * <p>The file is opened once and kept open until {@link #close()} is called, which waits for all
+ * pending lines to be written. Write errors are reported when closing.
+ *
+ * @see LoggingEventHandler
+ */
+public class EventTraceWriter implements Closeable {
+
+  private final Path targetFile;
+  private final ExecutorService executor;
+  private BufferedWriter writer;
+  private IOException failure;
+
+  /**
+   * @param targetFile The file where trace lines are appended to.
+   */
+  public EventTraceWriter(String targetFile) {
+
+    this.targetFile = Paths.get(targetFile);
+    this.executor =
+        Executors.newSingleThreadExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "jupiter-event-trace");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Queues a single line to be written.
+   *
+   * @param line The line (without line separator).
+   */
+  public void write(String line) {
+
+    executor.execute(() -> write0(line));
+  }
+
+  /**
+   * Writes all pending lines and closes the target file.
+   *
+   * @throws UncheckedIOException If any line could not be written.
+   */
+  @Override
+  public void close() {
+
+    executor.execute(this::close0);
+    executor.shutdown();
+
+    try {
+      executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    if (null != failure) {
+      throw new UncheckedIOException(failure);
+    }
+  }
+
+  private void write0(String line) {
+
+    if (null != failure) {
+      return;
+    }
+
+    try {
+      if (null == writer) {
+        writer =
+            Files.newBufferedWriter(
+                targetFile,
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+      }
+
+      writer.write(line);
+      writer.newLine();
+    } catch (IOException e) {
+      failure = e;
+    }
+  }
+
+  private void close0() {
+
+    if (null == writer) {
+      return;
+    }
+
+    try {
+      writer.close();
+    } catch (IOException e) {
+      if (null == failure) {
+        failure = e;
+      }
+    } finally {
+      writer = null;
+    }
+  }
+}
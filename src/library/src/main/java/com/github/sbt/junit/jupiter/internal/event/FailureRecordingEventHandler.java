@@ -0,0 +1,59 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal.event;
+
+import com.github.sbt.junit.jupiter.internal.FailureStore;
+import java.util.Objects;
+import sbt.testing.Event;
+import sbt.testing.EventHandler;
+
+/**
+ * Records dispatched events in order to remember failed tests.
+ *
+ * <p>Failed invocations of dynamic or parameterized tests are remembered by their unique id, so
+ * that exactly these invocations can be selected again.
+ *
+ * @see FailureStore
+ */
+public class FailureRecordingEventHandler implements EventHandler {
+
+  private final FailureStore failureStore;
+  private final EventHandler eventHandler;
+
+  /**
+   * @param failureStore The store which receives the events.
+   * @param eventHandler The real event handler.
+   */
+  public FailureRecordingEventHandler(FailureStore failureStore, EventHandler eventHandler) {
+
+    this.failureStore = Objects.requireNonNull(failureStore, "failureStore");
+    this.eventHandler = Objects.requireNonNull(eventHandler, "eventHandler");
+  }
+
+  @Override
+  public void handle(Event event) {
+
+    if (event instanceof Dispatcher.DispatchEvent) {
+      failureStore.record(event, ((Dispatcher.DispatchEvent) event).rerunSelector());
+    } else {
+      failureStore.record(event);
+    }
+    eventHandler.handle(event);
+  }
+}
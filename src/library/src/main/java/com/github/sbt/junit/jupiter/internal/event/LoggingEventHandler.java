@@ -18,12 +18,6 @@
  */
 package com.github.sbt.junit.jupiter.internal.event;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.util.Objects;
 import sbt.testing.Event;
 import sbt.testing.EventHandler;
@@ -35,41 +29,34 @@ import sbt.testing.EventHandler;
  *
  * <pre>{@code
  * SBT> testOnly -- --trace-dispatch-events
+ * SBT> testOnly -- --trace-dispatch-events=target/events.jsonl --trace-format=jsonl
  * }</pre>
  *
  * @author Michael Aichler
  */
 public class LoggingEventHandler implements EventHandler {
 
-  private final File targetFile;
+  private final EventTraceWriter traceWriter;
+  private final EventTraceFormat traceFormat;
   private final EventHandler eventHandler;
 
   /**
-   * @param targetFile The target file where to log the events.
+   * @param traceWriter The writer which logs the events to the target file.
+   * @param traceFormat The format of logged events.
    * @param eventHandler The real event handler.
    */
-  public LoggingEventHandler(String targetFile, EventHandler eventHandler) {
+  public LoggingEventHandler(
+      EventTraceWriter traceWriter, EventTraceFormat traceFormat, EventHandler eventHandler) {
 
-    this.targetFile = new File(targetFile);
+    this.traceWriter = Objects.requireNonNull(traceWriter, "traceWriter");
+    this.traceFormat = Objects.requireNonNull(traceFormat, "traceFormat");
     this.eventHandler = Objects.requireNonNull(eventHandler, "eventHandler");
   }
 
   @Override
   public void handle(Event event) {
 
-    writeEventToFile(event);
+    traceWriter.write(traceFormat.format(event));
     eventHandler.handle(event);
   }
-
-  private void writeEventToFile(Event event) {
-
-    try (OutputStream out = new FileOutputStream(targetFile, true)) {
-      try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out))) {
-        writer.write(event.toString());
-        writer.newLine();
-      }
-    } catch (IOException e) {
-      throw new RuntimeException(e);
-    }
-  }
 }
@@ -20,6 +20,7 @@ package com.github.sbt.junit.jupiter.internal.event;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.junit.platform.engine.TestSource;
 import org.junit.platform.engine.UniqueId;
@@ -36,6 +37,7 @@ class TaskName {
   private String nestedSuiteId;
   private String testName;
   private String invocation;
+  private String uniqueId;
 
   /**
    * @return The fully qualified name of the test suite.
@@ -69,6 +71,14 @@ class TaskName {
     return invocation;
   }
 
+  /**
+   * @return An optional unique identifier of the test (might be {@code null}).
+   */
+  String uniqueId() {
+
+    return uniqueId;
+  }
+
   /**
    * Creates a task name for the specified {@code testName}.
    *
@@ -99,6 +109,7 @@ class TaskName {
 
     TaskName result = new TaskName();
     result.fullyQualifiedName = testSuite;
+    result.uniqueId = identifier.getUniqueId();
 
     TestSource testSource = identifier.getSource().orElse(null);
 
@@ -112,7 +123,7 @@ class TaskName {
 
       MethodSource methodSource = (MethodSource) testSource;
       result.nestedSuiteId = nestedSuiteId(removedJunit5SuiteName, methodSource.getClassName());
-      result.invocation = invocation(identifier, UniqueId.parse(identifier.getUniqueId()));
+      result.invocation = invocation(identifier, identifier.getUniqueIdObject());
       result.testName =
           testName(methodSource.getMethodName(), methodSource.getMethodParameterTypes());
     }
@@ -120,6 +131,63 @@ class TaskName {
     return result;
   }
 
+  /**
+   * Determines to which of the specified test suites the given identifier belongs.
+   *
+   * <p>This is required when several test classes are discovered and executed in a single launcher
+   * request, so that events are still reported for the correct test suite.
+   *
+   * @param testSuites The names of the test suites which are executed together (in order).
+   * @param identifier The test identifier.
+   * @return The name of the enclosing test suite (falls back to the first test suite).
+   */
+  static String testSuiteOf(Set<String> testSuites, TestIdentifier identifier) {
+
+    String result = testSuites.iterator().next();
+    if (1 == testSuites.size()) {
+      return result;
+    }
+
+    for (UniqueId.Segment segment : identifier.getUniqueIdObject().getSegments()) {
+      if ("suite".equals(segment.getType()) && testSuites.contains(segment.getValue())) {
+        return segment.getValue();
+      }
+    }
+
+    TestSource testSource = identifier.getSource().orElse(null);
+    String className = null;
+
+    if (testSource instanceof ClassSource) {
+      className = ((ClassSource) testSource).getClassName();
+    }
+
+    if (testSource instanceof MethodSource) {
+      className = ((MethodSource) testSource).getClassName();
+    }
+
+    // the innermost enclosing class which is a test suite matches longest
+    while (null != className) {
+      if (testSuites.contains(className)) {
+        return className;
+      }
+
+      int nested = className.lastIndexOf('$');
+      className = nested < 0 ? null : className.substring(0, nested);
+    }
+
+    return result;
+  }
+
+  /**
+   * @param testSuite The name of the test suite.
+   * @param className The name of a class.
+   * @return {@code True}, if the class is the test suite itself or one of its nested classes.
+   */
+  static boolean encloses(String testSuite, String className) {
+
+    return className.equals(testSuite) || className.startsWith(testSuite + '$');
+  }
+
   /**
    * Removes a leading JUnit 5 suite name from the test suite name, if present.
    *
@@ -138,7 +206,7 @@ class TaskName {
     }
 
     final String suiteIdentifier = suiteSegments.get(0).getValue();
-    if (!testSuite.startsWith(suiteIdentifier)) {
+    if (!encloses(suiteIdentifier, testSuite)) {
       throw new RuntimeException(
           "Test: " + testSuite + " does not start with JUnit 5 suite: " + suiteIdentifier);
     }
@@ -154,7 +222,8 @@ class TaskName {
    */
   static String nestedSuiteId(String testSuite, String className) {
 
-    if (!className.startsWith(testSuite)) {
+    // classes of a JUnit 5 suite are not enclosed by the suite, see removeJunit5SuiteName
+    if (!testSuite.isEmpty() && !encloses(testSuite, className)) {
       throw new RuntimeException("Test class " + className + " is not enclosed by " + testSuite);
     }
 
@@ -0,0 +1,185 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal.event;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectMethod;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectNestedClass;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectNestedMethod;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectUniqueId;
+
+import com.github.sbt.junit.jupiter.api.UniqueIdSelector;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.platform.commons.JUnitException;
+import org.junit.platform.engine.DiscoverySelector;
+import sbt.testing.NestedSuiteSelector;
+import sbt.testing.NestedTestSelector;
+import sbt.testing.Selector;
+import sbt.testing.TaskDef;
+import sbt.testing.TestSelector;
+
+/**
+ * Translates the selectors of a task definition into discovery selectors.
+ *
+ * <p>This is the inverse of the mapping from test identifiers to event selectors (see {@link
+ * TaskName} and {@link Dispatcher.DispatchEvent#toSelector(TaskName)}), so that single tests which
+ * have been reported by a previous run can be selected directly instead of discovering and
+ * filtering their whole test class.
+ *
+ * <p>Each {@link TestSelector} and {@link NestedTestSelector} selects the matching test method,
+ * including all its invocations. A {@link UniqueIdSelector}, or a {@link TestSelector} whose test
+ * name is a unique id, selects exactly one test or invocation. A {@link NestedSuiteSelector}
+ * selects the nested test class. The whole test class is selected if any other selector is present
+ * or if a selector cannot be resolved.
+ */
+public class TaskSelectors {
+
+  private static final String ENGINE_SEGMENT = "[engine:";
+
+  private TaskSelectors() {}
+
+  /**
+   * @param taskDef The task definition.
+   * @param classLoader The class loader used to resolve test classes and methods.
+   * @return The discovery selectors of the specified task definition.
+   */
+  public static List<DiscoverySelector> of(TaskDef taskDef, ClassLoader classLoader) {
+
+    String testSuite = taskDef.fullyQualifiedName();
+    if (testSuite.contains("#")) {
+      return Collections.singletonList(selectMethod(testSuite));
+    }
+
+    Set<DiscoverySelector> result = new LinkedHashSet<>();
+    for (Selector selector : taskDef.selectors()) {
+      DiscoverySelector discoverySelector = of(testSuite, selector, classLoader);
+      if (null == discoverySelector) {
+        return Collections.singletonList(selectClass(testSuite));
+      }
+      result.add(discoverySelector);
+    }
+
+    if (result.isEmpty()) {
+      return Collections.singletonList(selectClass(testSuite));
+    }
+
+    return new ArrayList<>(result);
+  }
+
+  /**
+   * @return The discovery selector or {@code null}, if the whole test class should be selected.
+   */
+  private static DiscoverySelector of(String testSuite, Selector selector, ClassLoader loader) {
+
+    try {
+      if (selector instanceof UniqueIdSelector) {
+
+        return selectUniqueId(((UniqueIdSelector) selector).uniqueId());
+      }
+
+      if (selector instanceof TestSelector) {
+
+        String testName = ((TestSelector) selector).testName();
+        if (testName.startsWith(ENGINE_SEGMENT)) {
+          return selectUniqueId(testName);
+        }
+
+        Class<?> testClass = Class.forName(testSuite, false, loader);
+        Method method = findMethod(testClass, testName);
+
+        return null == method
+            ? null
+            : selectMethod(testSuite, method.getName(), parameters(method));
+      }
+
+      if (selector instanceof NestedTestSelector) {
+
+        NestedTestSelector nested = (NestedTestSelector) selector;
+        Class<?> nestedClass = Class.forName(testSuite + nested.suiteId(), false, loader);
+        Method method = findMethod(nestedClass, nested.testName());
+
+        return null == method
+            ? null
+            : selectNestedMethod(
+                enclosingClassNames(nestedClass),
+                nestedClass.getName(),
+                method.getName(),
+                parameters(method));
+      }
+
+      if (selector instanceof NestedSuiteSelector) {
+
+        String suiteId = ((NestedSuiteSelector) selector).suiteId();
+        Class<?> nestedClass = Class.forName(testSuite + suiteId, false, loader);
+
+        return selectNestedClass(enclosingClassNames(nestedClass), nestedClass.getName());
+      }
+    } catch (ClassNotFoundException | LinkageError | JUnitException e) {
+      return null;
+    }
+
+    return null;
+  }
+
+  /**
+   * Finds the method whose test name (as created by {@link TaskName#testName(String, String)})
+   * matches the specified test name, ignoring any invocation suffix.
+   */
+  private static Method findMethod(Class<?> testClass, String testName) {
+
+    int indexOf = testName.indexOf(')');
+    String signature = indexOf < 0 ? testName : testName.substring(0, indexOf + 1);
+
+    for (Class<?> type = testClass; null != type; type = type.getSuperclass()) {
+      for (Method method : type.getDeclaredMethods()) {
+        if (signature.equals(TaskName.testName(method.getName(), parameters(method)))) {
+          return method;
+        }
+      }
+    }
+
+    return null;
+  }
+
+  private static String parameters(Method method) {
+
+    return Arrays.stream(method.getParameterTypes())
+        .map(Class::getTypeName)
+        .collect(Collectors.joining(", "));
+  }
+
+  private static List<String> enclosingClassNames(Class<?> nestedClass) {
+
+    List<String> result = new ArrayList<>();
+    for (Class<?> type = nestedClass.getEnclosingClass();
+        null != type;
+        type = type.getEnclosingClass()) {
+      result.add(0, type.getName());
+    }
+
+    return result;
+  }
+}
@@ -23,9 +23,10 @@ import static org.junit.platform.engine.FilterResult.included;
 
 import com.github.sbt.junit.jupiter.internal.event.Dispatcher;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.regex.Pattern;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.junit.platform.engine.FilterResult;
 import org.junit.platform.engine.TestDescriptor;
@@ -36,17 +37,23 @@ import org.junit.platform.launcher.PostDiscoveryFilter;
 /**
  * Filters test descriptors against a given set of glob patterns.
  *
+ * <p>All glob patterns are stored in a single {@link PatternTrie}, so that each test name is
+ * matched in one pass over its characters; the cost grows with the number of patterns sharing a
+ * prefix with the name rather than with the total number of patterns. Test names are derived from
+ * the (cached) name of the parent descriptor where possible.
+ *
  * @author Michael Aichler
  */
 public class GlobFilter implements PostDiscoveryFilter {
 
   private final Dispatcher eventDispatcher;
-  private final List<Pattern> patterns;
+  private final PatternTrie patterns = new PatternTrie();
+  private final Map<UniqueId, String> testNames = new ConcurrentHashMap<>();
 
   GlobFilter(Set<String> globPatterns, Dispatcher eventDispatcher) {
 
     this.eventDispatcher = eventDispatcher;
-    this.patterns = globPatterns.stream().map(this::compile).collect(Collectors.toList());
+    globPatterns.forEach(glob -> patterns.add(glob, tokenize(glob)));
   }
 
   /**
@@ -70,15 +77,46 @@ public class GlobFilter implements PostDiscoveryFilter {
   @Override
   public FilterResult apply(TestDescriptor object) {
 
-    String plainName = toTestName(object.getUniqueId());
+    String plainName = toTestName(object);
+
+    if (matches(plainName)) {
+      return included("");
+    }
 
-    return findMatchingPattern(plainName)
-        .map(pattern -> included(""))
-        .orElseGet(
-            () -> {
-              eventDispatcher.executionFiltered(object, "because");
-              return excluded("");
-            });
+    eventDispatcher.executionFiltered(object, "because");
+    return excluded("");
+  }
+
+  /**
+   * Converts the specified descriptor to a test name, reusing the name of its parent if the
+   * descriptor's unique id extends the parent's unique id by a single segment.
+   *
+   * @param descriptor The test descriptor.
+   * @return The converted test name.
+   */
+  String toTestName(TestDescriptor descriptor) {
+
+    final UniqueId id = descriptor.getUniqueId();
+    final String cached = testNames.get(id);
+    if (null != cached) {
+      return cached;
+    }
+
+    final List<Segment> segments = id.getSegments();
+    final TestDescriptor parent = descriptor.getParent().orElse(null);
+    final String result;
+
+    if (segments.size() > 2
+        && null != parent
+        && parent.getUniqueId().getSegments().size() == segments.size() - 1
+        && id.hasPrefix(parent.getUniqueId())) {
+      result = toTestName(parent) + '.' + segments.get(segments.size() - 1).getValue();
+    } else {
+      result = toTestName(id);
+    }
+
+    testNames.put(id, result);
+    return result;
   }
 
   /**
@@ -96,38 +134,34 @@ public class GlobFilter implements PostDiscoveryFilter {
   }
 
   /**
-   * Tries to match any of the compiled patterns against the specified {@code testName}.
+   * Tries to match any of the glob patterns against the specified {@code testName}.
    *
    * @param testName The test name which is to be matched.
-   * @return The first pattern which matches the specified {@code testName}.
+   * @return The first glob pattern which matches the specified {@code testName}.
    */
-  Optional<Pattern> findMatchingPattern(String testName) {
+  Optional<String> findMatchingPattern(String testName) {
 
-    return patterns.stream().filter(pattern -> pattern.matcher(testName).matches()).findAny();
+    return Optional.ofNullable(patterns.find(testName));
   }
 
   /**
-   * Compiles the specified string representation of a glob pattern into a {@link Pattern}.
-   *
-   * @param glob The glob pattern which is to be compiled.
-   * @return The compiled pattern.
+   * @param testName The test name which is to be matched.
+   * @return {@code True}, if any of the patterns matches the specified {@code testName}.
    */
-  private Pattern compile(String glob) {
-
-    String[] a = glob.split("\\*", -1);
-    StringBuilder b = new StringBuilder();
-
-    for (int i = 0; i < a.length; i++) {
+  boolean matches(String testName) {
 
-      if (0 != i) {
-        b.append(".*");
-      }
+    return null != patterns.find(testName);
+  }
 
-      if (!a[i].isEmpty()) {
-        b.append(Pattern.quote(a[i].replaceAll("\n", "\\n")));
-      }
-    }
+  /**
+   * Converts the specified string representation of a glob pattern into the tokens of a {@link
+   * PatternTrie}.
+   *
+   * @param glob The glob pattern which is to be converted.
+   * @return The tokens of the glob pattern.
+   */
+  private static int[] tokenize(String glob) {
 
-    return Pattern.compile(b.toString());
+    return PatternTrie.globTokens(glob.replaceAll("\n", "\\n"));
   }
 }
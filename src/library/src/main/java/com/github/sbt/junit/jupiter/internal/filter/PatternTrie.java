@@ -0,0 +1,230 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal.filter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Matches test names against many simple patterns at once.
+ *
+ * <p>Patterns are sequences of literal characters, single character wildcards ({@link #ANY}) and
+ * wildcards for any number of characters ({@link #STAR}), stored in a prefix trie. A name is
+ * matched in a single pass over its characters while tracking the trie nodes which are still
+ * reachable, so the cost depends on the length of the name and on how many patterns share its
+ * prefix, not on the total number of patterns. Like {@code .} in a regular expression, wildcards do
+ * not match line terminators.
+ */
+class PatternTrie {
+
+  /** Token which matches any single character. */
+  static final int ANY = -1;
+
+  /** Token which matches any number of characters. */
+  static final int STAR = -2;
+
+  private final Node root = new Node(false);
+  private int size;
+
+  /**
+   * Adds a pattern to this trie.
+   *
+   * @param pattern The pattern which is reported if it matches.
+   * @param tokens The characters and wildcards of the pattern.
+   */
+  void add(String pattern, int[] tokens) {
+
+    Node node = root;
+    for (int token : tokens) {
+      if (ANY == token) {
+        node = null == node.any ? (node.any = new Node(false)) : node.any;
+      } else if (STAR == token) {
+        node = null == node.star ? (node.star = new Node(true)) : node.star;
+      } else {
+        node = node.literals.computeIfAbsent((char) token, key -> new Node(false));
+      }
+    }
+
+    if (null == node.pattern) {
+      node.pattern = pattern;
+      node.order = size;
+    }
+
+    size++;
+  }
+
+  /**
+   * @return {@code True}, if no pattern has been added.
+   */
+  boolean isEmpty() {
+
+    return 0 == size;
+  }
+
+  /**
+   * Matches the concatenation of the specified parts, so that callers need not build the name.
+   *
+   * @param parts The parts of the test name.
+   * @return The first added pattern which matches or {@code null}, if none matches.
+   */
+  String find(CharSequence... parts) {
+
+    Set<Node> current = new LinkedHashSet<>();
+    enter(root, current);
+
+    for (CharSequence part : parts) {
+      for (int i = 0; i < part.length(); i++) {
+
+        char c = part.charAt(i);
+        boolean terminator = isLineTerminator(c);
+        Set<Node> next = new LinkedHashSet<>();
+
+        for (Node node : current) {
+          Node literal = node.literals.get(c);
+          if (null != literal) {
+            enter(literal, next);
+          }
+          if (!terminator) {
+            if (null != node.any) {
+              enter(node.any, next);
+            }
+            if (node.loop) {
+              next.add(node);
+            }
+          }
+        }
+
+        if (next.isEmpty()) {
+          return null;
+        }
+
+        current = next;
+      }
+    }
+
+    Node result = null;
+    for (Node node : current) {
+      if (null != node.pattern && (null == result || node.order < result.order)) {
+        result = node;
+      }
+    }
+
+    return null == result ? null : result.pattern;
+  }
+
+  /**
+   * Converts a glob pattern, whose only wildcard is {@code *}, into tokens.
+   *
+   * @param glob The glob pattern.
+   * @return The tokens of the glob.
+   */
+  static int[] globTokens(String glob) {
+
+    int[] result = new int[glob.length()];
+    for (int i = 0; i < glob.length(); i++) {
+      char c = glob.charAt(i);
+      result[i] = '*' == c ? STAR : c;
+    }
+
+    return result;
+  }
+
+  /**
+   * Converts a regular expression into tokens, if it only consists of literal characters (which
+   * might be escaped or quoted), {@code .} and {@code .*}.
+   *
+   * @param regex The regular expression.
+   * @return The tokens of the regular expression or {@code null}, if it requires a regex engine.
+   */
+  static int[] regexTokens(String regex) {
+
+    List<Integer> result = new ArrayList<>();
+    int i = 0;
+
+    while (i < regex.length()) {
+      char c = regex.charAt(i);
+
+      if ('\\' == c) {
+        if (i + 1 >= regex.length()) {
+          return null;
+        }
+
+        char escaped = regex.charAt(i + 1);
+        if ('Q' == escaped) {
+          int end = regex.indexOf("\\E", i + 2);
+          String quoted = regex.substring(i + 2, end < 0 ? regex.length() : end);
+          quoted.chars().forEach(result::add);
+          i = end < 0 ? regex.length() : end + 2;
+        } else if (Character.isLetterOrDigit(escaped)) {
+          return null;
+        } else {
+          result.add((int) escaped);
+          i += 2;
+        }
+      } else if ('.' == c) {
+        boolean star = i + 1 < regex.length() && '*' == regex.charAt(i + 1);
+        result.add(star ? STAR : ANY);
+        i += star ? 2 : 1;
+      } else if ("^$|?*+()[]{}".indexOf(c) >= 0) {
+        return null;
+      } else {
+        result.add((int) c);
+        i++;
+      }
+
+      if (i < regex.length() && "?*+{".indexOf(regex.charAt(i)) >= 0) {
+        // quantified or lazy/possessive tokens
+        return null;
+      }
+    }
+
+    return result.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  private static void enter(Node node, Set<Node> nodes) {
+
+    if (nodes.add(node) && null != node.star) {
+      enter(node.star, nodes);
+    }
+  }
+
+  private static boolean isLineTerminator(char c) {
+
+    return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+  }
+
+  private static class Node {
+
+    final Map<Character, Node> literals = new HashMap<>();
+    final boolean loop;
+    Node any;
+    Node star;
+    String pattern;
+    int order;
+
+    Node(boolean loop) {
+
+      this.loop = loop;
+    }
+  }
+}
@@ -22,6 +22,8 @@ import static org.junit.platform.engine.FilterResult.excluded;
 import static org.junit.platform.engine.FilterResult.included;
 
 import com.github.sbt.junit.jupiter.internal.event.Dispatcher;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -38,11 +40,18 @@ import org.junit.platform.launcher.PostDiscoveryFilter;
 /**
  * Filter for tests specified via commandline argument {@code --tests=}.
  *
+ * <p>Patterns are compiled once. Patterns which only consist of literal (possibly escaped or
+ * quoted) characters, {@code .} and {@code .*} - for example {@code com.example.FooTest#test.*} or
+ * {@code com\.example\.FooTest#test\(\)} - are matched together by a {@link PatternTrie}, which
+ * walks the parts of a test name without building it. Only the remaining regular expressions are
+ * evaluated one by one.
+ *
  * @author Michael Aichler
  */
 public class TestFilter implements PostDiscoveryFilter {
 
-  private final Set<String> testPatterns;
+  private final PatternTrie simplePatterns = new PatternTrie();
+  private final List<Pattern> regexPatterns = new ArrayList<>();
   private final String patternDescription;
   private final Dispatcher eventDispatcher;
   private final Map<UniqueId, FilterResult> alreadyTestedIds = new ConcurrentHashMap<>();
@@ -50,8 +59,16 @@ public class TestFilter implements PostDiscoveryFilter {
   TestFilter(Set<String> testFilters, Dispatcher eventDispatcher) {
 
     this.eventDispatcher = eventDispatcher;
-    this.testPatterns = testFilters;
     this.patternDescription = testFilters.stream().collect(Collectors.joining(" OR "));
+
+    for (String pattern : testFilters) {
+      int[] tokens = PatternTrie.regexTokens(pattern);
+      if (null != tokens) {
+        simplePatterns.add(pattern, tokens);
+      } else {
+        regexPatterns.add(Pattern.compile(pattern));
+      }
+    }
   }
 
   /**
@@ -79,9 +96,10 @@ public class TestFilter implements PostDiscoveryFilter {
     return alreadyTestedIds.computeIfAbsent(
         id,
         key -> {
-          final Optional<String> testName = toTestName(object);
           final FilterResult result =
-              testName.map(this::findMatchingResult).orElse(included("Not a leaf descriptor"));
+              toMethodSource(object)
+                  .map(this::findMatchingResult)
+                  .orElse(included("Not a leaf descriptor"));
 
           if (result.excluded()) {
             final String reason = result.getReason().orElse("");
@@ -92,7 +110,7 @@ public class TestFilter implements PostDiscoveryFilter {
         });
   }
 
-  private Optional<String> toTestName(TestDescriptor object) {
+  private Optional<MethodSource> toMethodSource(TestDescriptor object) {
 
     TestSource testSource = object.getSource().orElse(null);
 
@@ -100,25 +118,51 @@ public class TestFilter implements PostDiscoveryFilter {
       return Optional.empty();
     }
 
-    MethodSource methodSource = (MethodSource) testSource;
-    return Optional.of(
-        methodSource.getClassName()
-            + '#'
-            + methodSource.getMethodName()
-            + '('
-            + methodSource.getMethodParameterTypes()
-            + ')');
+    return Optional.of((MethodSource) testSource);
+  }
+
+  /**
+   * @return The parts of the test name {@code Class#method(parameterTypes)}.
+   */
+  private static String[] toTestNameParts(MethodSource methodSource) {
+
+    return new String[] {
+      methodSource.getClassName(),
+      "#",
+      methodSource.getMethodName(),
+      "(",
+      methodSource.getMethodParameterTypes(),
+      ")"
+    };
+  }
+
+  private FilterResult findMatchingResult(MethodSource methodSource) {
+
+    String[] parts = toTestNameParts(methodSource);
+    return findMatchingResult(parts);
   }
 
-  FilterResult findMatchingResult(String testName) {
+  FilterResult findMatchingResult(String... testNameParts) {
 
-    return findMatchingPattern(testName)
-        .map(pattern -> included("Pattern <" + pattern + "> matches <" + testName + ">"))
+    return findMatchingPattern(testNameParts)
+        .map(
+            pattern ->
+                included(
+                    "Pattern <" + pattern + "> matches <" + String.join("", testNameParts) + ">"))
         .orElseGet(() -> excluded("Does not match pattern " + patternDescription));
   }
 
-  Optional<String> findMatchingPattern(String testName) {
+  Optional<String> findMatchingPattern(String... testNameParts) {
+
+    String pattern = simplePatterns.find(testNameParts);
+    if (null != pattern || regexPatterns.isEmpty()) {
+      return Optional.ofNullable(pattern);
+    }
 
-    return testPatterns.stream().filter(p -> Pattern.matches(p, testName)).findAny();
+    String testName = String.join("", testNameParts);
+    return regexPatterns.stream()
+        .filter(p -> p.matcher(testName).matches())
+        .map(Pattern::pattern)
+        .findFirst();
   }
 }
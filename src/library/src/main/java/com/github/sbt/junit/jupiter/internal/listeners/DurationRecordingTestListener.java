@@ -0,0 +1,75 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal.listeners;
+
+import com.github.sbt.junit.jupiter.internal.DurationStore;
+import java.util.Objects;
+import java.util.Set;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+
+/**
+ * Records the elapsed time of test suite containers.
+ *
+ * <p>The duration of a test suite is the time between the start and the end of its class container,
+ * which includes class-level lifecycle methods (e.g. {@code @BeforeAll}) and does not add up tests
+ * which are executed concurrently.
+ *
+ * @see DurationStore
+ */
+public class DurationRecordingTestListener implements TestExecutionListener {
+
+  private final DurationStore durationStore;
+  private final ExecutionStates executionStates;
+  private final Set<String> testSuiteNames;
+
+  /**
+   * @param durationStore The store which receives the durations.
+   * @param executionStates The execution states of the current task.
+   * @param testSuiteNames The names of the test suites whose durations are recorded.
+   */
+  public DurationRecordingTestListener(
+      DurationStore durationStore, ExecutionStates executionStates, Set<String> testSuiteNames) {
+
+    this.durationStore = Objects.requireNonNull(durationStore, "durationStore");
+    this.executionStates = Objects.requireNonNull(executionStates, "executionStates");
+    this.testSuiteNames = Objects.requireNonNull(testSuiteNames, "testSuiteNames");
+  }
+
+  @Override
+  public void executionFinished(TestIdentifier identifier, TestExecutionResult result) {
+
+    if (TestExecutionResult.Status.ABORTED == result.getStatus()) {
+      return;
+    }
+
+    identifier
+        .getSource()
+        .filter(ClassSource.class::isInstance)
+        .map(source -> ((ClassSource) source).getClassName())
+        .filter(testSuiteNames::contains)
+        .ifPresent(
+            testSuite ->
+                executionStates
+                    .find(identifier)
+                    .ifPresent(state -> durationStore.record(testSuite, state.durationNanos())));
+  }
+}
@@ -0,0 +1,36 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal.listeners;
+
+import java.util.Locale;
+
+/** Formats durations which have been measured with {@link System#nanoTime()}. */
+final class Durations {
+
+  private Durations() {}
+
+  /**
+   * @param nanos The duration in nanoseconds.
+   * @return The duration in seconds with microsecond precision, e.g. {@code 0.000123s}.
+   */
+  static String format(long nanos) {
+
+    return String.format(Locale.ROOT, "%.6fs", nanos / 1e9);
+  }
+}
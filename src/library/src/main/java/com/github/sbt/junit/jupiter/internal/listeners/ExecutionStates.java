@@ -0,0 +1,136 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal.listeners;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+
+/**
+ * Keeps the execution state of all test identifiers which are currently executed by a single task,
+ * so that listeners can share it instead of maintaining their own bookkeeping.
+ *
+ * <p>The state of an identifier is evicted as soon as its execution has finished. Since the
+ * launcher notifies listeners about finished executions in reverse order, this listener needs to be
+ * registered first, so that all other listeners can still access the state.
+ */
+public class ExecutionStates implements TestExecutionListener {
+
+  private final Map<String, ExecutionState> states = new ConcurrentHashMap<>();
+
+  /**
+   * @param identifier The test identifier.
+   * @return The state of the specified identifier, which is created if necessary.
+   */
+  public ExecutionState get(TestIdentifier identifier) {
+
+    return states.computeIfAbsent(identifier.getUniqueId(), key -> new ExecutionState());
+  }
+
+  /**
+   * @param identifier The test identifier.
+   * @return The state of the specified identifier, if it exists.
+   */
+  public Optional<ExecutionState> find(TestIdentifier identifier) {
+
+    return Optional.ofNullable(states.get(identifier.getUniqueId()));
+  }
+
+  /**
+   * @return The number of identifiers whose state is currently kept.
+   */
+  public int size() {
+
+    return states.size();
+  }
+
+  @Override
+  public void executionFinished(TestIdentifier identifier, TestExecutionResult result) {
+
+    states.remove(identifier.getUniqueId());
+  }
+
+  /** Execution state of a single test identifier. */
+  public static class ExecutionState {
+
+    private boolean started;
+    private long startNanos;
+    private boolean reported;
+    private String formattedName;
+    private OutputCapturingTestListener.CapturedStreams capturedStreams;
+
+    /** Records the current time as start time, unless a start time has already been recorded. */
+    public synchronized void markStarted() {
+
+      if (!started) {
+        started = true;
+        startNanos = System.nanoTime();
+      }
+    }
+
+    /**
+     * @return The nanoseconds elapsed since the recorded start time, or {@code 0} if no start time
+     *     has been recorded.
+     */
+    public synchronized long durationNanos() {
+
+      return started ? System.nanoTime() - startNanos : 0L;
+    }
+
+    /**
+     * @return {@code True}, if this is the first attempt to report the identifier.
+     */
+    public synchronized boolean markReported() {
+
+      if (reported) {
+        return false;
+      }
+
+      reported = true;
+      return true;
+    }
+
+    /**
+     * @param formatter Formats the display name of the identifier.
+     * @return The formatted display name, which is computed on first access only.
+     */
+    public synchronized String formattedName(Supplier<String> formatter) {
+
+      if (null == formattedName) {
+        formattedName = formatter.get();
+      }
+
+      return formattedName;
+    }
+
+    synchronized OutputCapturingTestListener.CapturedStreams capturedStreams() {
+
+      return capturedStreams;
+    }
+
+    synchronized void capturedStreams(OutputCapturingTestListener.CapturedStreams value) {
+
+      capturedStreams = value;
+    }
+  }
+}
@@ -22,9 +22,7 @@ import com.github.sbt.junit.jupiter.api.JupiterTestListener;
 import com.github.sbt.junit.jupiter.internal.ColorTheme;
 import com.github.sbt.junit.jupiter.internal.Configuration;
 import com.github.sbt.junit.jupiter.internal.TestLogger;
-import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentHashMap;
 import org.junit.platform.engine.TestExecutionResult;
 import org.junit.platform.engine.reporting.ReportEntry;
 import org.junit.platform.launcher.TestIdentifier;
@@ -35,17 +33,18 @@ import org.junit.platform.launcher.TestPlan;
  */
 public class FlatPrintingTestListener implements JupiterTestListener {
 
-  private TestPlan testPlan;
+  private volatile TestPlan testPlan;
   private final TestLogger logger;
   private final ColorTheme colorTheme;
   private final Configuration configuration;
-  private final Map<String, Long> startTimes = new ConcurrentHashMap<>();
+  private final ExecutionStates executionStates;
 
   public FlatPrintingTestListener(Configuration configuration) {
 
     this.colorTheme = configuration.getColorTheme();
     this.configuration = configuration;
     this.logger = configuration.getLogger();
+    this.executionStates = configuration.getExecutionStates();
   }
 
   @Override
@@ -67,7 +66,7 @@ public class FlatPrintingTestListener implements JupiterTestListener {
   @Override
   public void executionStarted(TestIdentifier testIdentifier) {
 
-    startTimes.putIfAbsent(testIdentifier.getUniqueId(), System.currentTimeMillis());
+    executionStates.get(testIdentifier).markStarted();
 
     if (!testIdentifier.getParentId().isPresent()) {
       if (!testPlan.getChildren(testIdentifier).isEmpty()) {
@@ -86,7 +85,7 @@ public class FlatPrintingTestListener implements JupiterTestListener {
   @Override
   public void executionFinished(TestIdentifier identifier, TestExecutionResult result) {
 
-    String duration = calculateDurationSuffix(identifier.getUniqueId());
+    String duration = calculateDurationSuffix(identifier);
     Throwable throwable = result.getThrowable().orElse(null);
     String fqn, message;
 
@@ -114,16 +113,14 @@ public class FlatPrintingTestListener implements JupiterTestListener {
   @Override
   public void reportingEntryPublished(TestIdentifier testIdentifier, ReportEntry entry) {}
 
-  private long calculateDuration(String uniqueId) {
+  private String calculateDurationSuffix(TestIdentifier identifier) {
 
-    final long startTime = startTimes.getOrDefault(uniqueId, 0L);
-    return (0L == startTime ? startTime : System.currentTimeMillis() - startTime);
-  }
-
-  private String calculateDurationSuffix(String uniqueId) {
-
-    long duration = calculateDuration(uniqueId);
-    return ", took " + (duration / 1000.0) + "s";
+    long durationNanos =
+        executionStates
+            .find(identifier)
+            .map(ExecutionStates.ExecutionState::durationNanos)
+            .orElse(0L);
+    return ", took " + Durations.format(durationNanos);
   }
 
   private void debugOrInfo(String message) {
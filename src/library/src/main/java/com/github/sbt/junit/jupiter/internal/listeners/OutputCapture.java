@@ -25,17 +25,32 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
-import java.lang.invoke.MethodHandle;
-import java.lang.invoke.MethodHandles;
-import java.lang.invoke.MethodType;
-import java.util.Arrays;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
 import java.util.Objects;
-import java.util.Optional;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanException;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
 
 /**
  * Hijacks the systems standard output and error streams on a per-thread basis and redirects to
  * given streams.
  *
+ * <p>Only installing and uninstalling the delegating streams is synchronized. Resolving the stream
+ * of the current thread is a plain thread-local lookup, so that concurrently running tests do not
+ * contend on a global lock for every write.
+ *
  * @author Original Developers of Apache Geronimo GShell
  * @version $Rev: 725707 $ $Date: 2008-12-11 16:00:30 +0100 (Thu, 11 Dec 2008) $
  */
@@ -47,16 +62,13 @@ public class OutputCapture {
       new InheritableThreadLocal<>();
 
   /** The previously installed System streams, initialized when installing. */
-  private static StreamPair previous;
-
-  /** Shared state between multiple threads and class-loaders. */
-  private static SharedProperty sharedProperty = new SharedProperty();
+  private static volatile StreamPair previous;
 
   /**
    * Possibly installs delegating print streams.
    *
-   * <p>Checks whether the current thread is the first thread to install output capturing. If {@code
-   * true}, the original print streams will be overwritten by custom, delegating print streams.
+   * <p>Checks whether this is the first active installation of output capturing. If {@code true},
+   * the original print streams will be overwritten by custom, delegating print streams.
    *
    * <p>In any case this method stores the specified {@code system} stream pair, so that it can be
    * successfully restored later on.
@@ -69,7 +81,7 @@ public class OutputCapture {
     // Capture the original set of streams
     previous = system;
 
-    if (sharedProperty.install()) {
+    if (Installations.install()) {
 
       PrintStream out = new DelegateStream(Type.OUT);
       PrintStream err = new DelegateStream(Type.ERR);
@@ -84,14 +96,14 @@ public class OutputCapture {
   /**
    * Possibly restores the original print streams.
    *
-   * <p>Checks whether the current thread is the last thread which previously installed output
-   * capturing. If {@code true}, then the original print streams will be restored.
+   * <p>Checks whether this releases the last active installation of output capturing. If {@code
+   * true}, then the original print streams will be restored.
    *
    * @see #install(StreamPair)
    */
   public static synchronized void uninstall() {
 
-    if (sharedProperty.uninstall()) {
+    if (Installations.uninstall()) {
 
       System.setOut(previous.get(Type.OUT));
       System.setErr(previous.get(Type.ERR));
@@ -105,13 +117,13 @@ public class OutputCapture {
    * @param err The error stream which is to be registered.
    * @throws IllegalStateException If output capturing has not been installed.
    */
-  public static synchronized void register(final PrintStream out, final PrintStream err) {
+  public static void register(final PrintStream out, final PrintStream err) {
 
     if (null == previous) {
       throw new IllegalStateException("Output capture was not installed.");
     }
 
-    StreamRegistration prev = registration().orElse(null);
+    StreamRegistration prev = active(registrations.get());
 
     StreamPair pair = new StreamPair(out, err);
 
@@ -120,96 +132,188 @@ public class OutputCapture {
     registrations.set(next);
   }
 
-  /** Deregister streams for the current thread, and restore the previous if any. */
-  public static synchronized void deregister() {
+  /**
+   * Deregister streams for the current thread, and restore the previous if any.
+   *
+   * <p>The deregistered streams are also released for all threads which inherited them, for example
+   * pooled worker threads of parallel test execution which were created while a test was running.
+   */
+  public static void deregister() {
 
-    registration().ifPresent(r -> registrations.set(r.previous));
+    StreamRegistration registration = active(registrations.get());
+    if (null != registration) {
+      registration.released = true;
+      registrations.set(active(registration.previous));
+    }
   }
 
-  /** Get the current stream registration. */
-  private static synchronized Optional<StreamRegistration> registration() {
+  /** Returns the currently registered streams. */
+  private static StreamPair current() {
 
-    return Optional.ofNullable(registrations.get());
+    StreamRegistration registration = active(registrations.get());
+    return null != registration ? registration.streams : previous;
   }
 
-  /** Returns the currently registered streams. */
-  private static synchronized StreamPair current() {
+  /**
+   * @return The first registration of the specified chain which has not been released yet.
+   */
+  private static StreamRegistration active(StreamRegistration registration) {
 
-    return registration().map(r -> r.streams).orElse(previous);
+    while (null != registration && registration.released) {
+      registration = registration.previous;
+    }
+
+    return registration;
   }
 
-  /** Shared state between multiple threads and class-loaders via system properties. */
-  private static class SharedProperty {
+  /**
+   * Reference-counted installation registry shared between multiple threads and class-loaders.
+   *
+   * <p>The registry is registered with the platform MBean server, which is shared by all
+   * class-loaders of the JVM, and is only invoked through JDK types. It unregisters itself when the
+   * last installation is released, so that it does not keep its class-loader alive longer than
+   * necessary. An installer which races with that release simply registers a new registry.
+   */
+  private static class Installations implements DynamicMBean {
 
-    private static final String NAME = SharedProperty.class.getName();
+    private static final String INSTALL = "install";
+    private static final String UNINSTALL = "uninstall";
 
-    private static final MethodHandle threadIdMethodHandle;
+    private final ObjectName name;
+    private int count;
+    private boolean closed;
 
-    static {
-      final String methodName;
-      if (Arrays.stream(Thread.class.getMethods())
-          .filter(x -> x.getName() == "threadId")
-          .findFirst()
-          .isPresent()) {
-        methodName = "threadId";
-      } else {
-        methodName = "getId";
-      }
+    private Installations(ObjectName name) {
 
-      try {
-        threadIdMethodHandle =
-            MethodHandles.lookup()
-                .findVirtual(Thread.class, methodName, MethodType.methodType(Long.TYPE));
-      } catch (NoSuchMethodException | IllegalAccessException e) {
-        throw new RuntimeException(e);
-      }
+      this.name = name;
     }
 
     /**
-     * @return A unique identifier for the current thread.
+     * @return {@code True}, if output capture should be installed.
      */
-    String id() {
-      try {
-        long value = (long) threadIdMethodHandle.invoke(Thread.currentThread());
-        return ":" + value;
-      } catch (Throwable e) {
-        throw new RuntimeException(e);
-      }
+    static boolean install() {
+
+      return call(INSTALL);
     }
 
     /**
-     * @return {@code True}, if output capture should be installed.
+     * @return {@code True}, if output capture should be uninstalled.
      */
-    boolean install() {
+    static boolean uninstall() {
+
+      return call(UNINSTALL);
+    }
 
-      String property = Optional.ofNullable(System.getProperty(NAME)).orElse("");
-      if (!property.isEmpty()) {
-        if (!property.contains(id())) {
-          System.setProperty(NAME, property + id());
+    private static boolean call(String operation) {
+
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = objectName();
+
+      while (true) {
+        try {
+          if (!server.isRegistered(name)) {
+            server.registerMBean(new Installations(name), name);
+          }
+
+          Object result = server.invoke(name, operation, null, null);
+          if (null != result) {
+            return (Boolean) result;
+          }
+        } catch (InstanceAlreadyExistsException | InstanceNotFoundException e) {
+          // registered or released concurrently by another class-loader, so try again
+        } catch (JMException e) {
+          throw new IllegalStateException("Failed to " + operation + " output capture.", e);
         }
-        return false;
       }
+    }
+
+    private static ObjectName objectName() {
 
-      System.setProperty(NAME, id());
-      return true;
+      try {
+        return new ObjectName("com.github.sbt.junit.jupiter:type=OutputCapture");
+      } catch (MalformedObjectNameException e) {
+        throw new IllegalStateException(e);
+      }
     }
 
     /**
-     * @return {@code True}, if output capture should be uninstalled.
+     * @return Whether output capture should be (un-)installed or {@code null}, if this registry has
+     *     already been released.
      */
-    boolean uninstall() {
+    @Override
+    public synchronized Object invoke(String actionName, Object[] params, String[] signature)
+        throws MBeanException, ReflectionException {
 
-      String property = Optional.ofNullable(System.getProperty(NAME)).orElse("");
-      if (property.isEmpty()) {
-        return false;
+      if (closed) {
+        return null;
       }
 
-      if (property.contains(id())) {
-        property = property.replace(id(), "");
-        System.setProperty(NAME, property);
+      switch (actionName) {
+        case INSTALL:
+          return 0 == count++;
+        case UNINSTALL:
+          if (0 == count || 0 != --count) {
+            return false;
+          }
+          closed = true;
+          try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+          } catch (JMException e) {
+            throw new MBeanException(e);
+          }
+          return true;
+        default:
+          throw new ReflectionException(new NoSuchMethodException(actionName));
       }
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+
+      throw new AttributeNotFoundException(attribute);
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
 
-      return property.isEmpty();
+      throw new AttributeNotFoundException(attribute.getName());
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+
+      return new AttributeList();
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+
+      return new AttributeList();
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+
+      return new MBeanInfo(
+          getClass().getName(),
+          "Active output capture installations",
+          null,
+          null,
+          new MBeanOperationInfo[] {
+            new MBeanOperationInfo(
+                INSTALL,
+                "Adds an installation",
+                null,
+                "java.lang.Boolean",
+                MBeanOperationInfo.ACTION),
+            new MBeanOperationInfo(
+                UNINSTALL,
+                "Releases an installation",
+                null,
+                "java.lang.Boolean",
+                MBeanOperationInfo.ACTION)
+          },
+          null);
     }
   }
 
@@ -218,6 +322,7 @@ public class OutputCapture {
 
     final StreamPair streams;
     final StreamRegistration previous;
+    volatile boolean released;
 
     StreamRegistration(final StreamPair streams, final StreamRegistration previous) {
 
@@ -226,7 +331,12 @@ public class OutputCapture {
     }
   }
 
-  /** Delegates write calls to the currently registered stream. */
+  /**
+   * Delegates all print and write calls to the currently registered stream.
+   *
+   * <p>Every method of {@link PrintStream} which would otherwise synchronize on this (globally
+   * installed) stream is overridden, so that only the stream of the current thread is locked.
+   */
   private static class DelegateStream extends PrintStream {
 
     private final Type type;
@@ -268,6 +378,175 @@ public class OutputCapture {
       get().close();
     }
 
+    @Override
+    public void print(final boolean b) {
+
+      get().print(b);
+    }
+
+    @Override
+    public void print(final char c) {
+
+      get().print(c);
+    }
+
+    @Override
+    public void print(final int i) {
+
+      get().print(i);
+    }
+
+    @Override
+    public void print(final long l) {
+
+      get().print(l);
+    }
+
+    @Override
+    public void print(final float f) {
+
+      get().print(f);
+    }
+
+    @Override
+    public void print(final double d) {
+
+      get().print(d);
+    }
+
+    @Override
+    public void print(final char[] s) {
+
+      get().print(s);
+    }
+
+    @Override
+    public void print(final String s) {
+
+      get().print(s);
+    }
+
+    @Override
+    public void print(final Object obj) {
+
+      get().print(obj);
+    }
+
+    @Override
+    public void println() {
+
+      get().println();
+    }
+
+    @Override
+    public void println(final boolean b) {
+
+      get().println(b);
+    }
+
+    @Override
+    public void println(final char c) {
+
+      get().println(c);
+    }
+
+    @Override
+    public void println(final int i) {
+
+      get().println(i);
+    }
+
+    @Override
+    public void println(final long l) {
+
+      get().println(l);
+    }
+
+    @Override
+    public void println(final float f) {
+
+      get().println(f);
+    }
+
+    @Override
+    public void println(final double d) {
+
+      get().println(d);
+    }
+
+    @Override
+    public void println(final char[] s) {
+
+      get().println(s);
+    }
+
+    @Override
+    public void println(final String s) {
+
+      get().println(s);
+    }
+
+    @Override
+    public void println(final Object obj) {
+
+      get().println(obj);
+    }
+
+    @Override
+    public PrintStream printf(final String format, final Object... args) {
+
+      get().format(format, args);
+      return this;
+    }
+
+    @Override
+    public PrintStream printf(final Locale l, final String format, final Object... args) {
+
+      get().format(l, format, args);
+      return this;
+    }
+
+    @Override
+    public PrintStream format(final String format, final Object... args) {
+
+      get().format(format, args);
+      return this;
+    }
+
+    @Override
+    public PrintStream format(final Locale l, final String format, final Object... args) {
+
+      get().format(l, format, args);
+      return this;
+    }
+
+    @Override
+    public PrintStream append(final CharSequence csq) {
+
+      get().append(csq);
+      return this;
+    }
+
+    @Override
+    public PrintStream append(final CharSequence csq, final int start, final int end) {
+
+      get().append(csq, start, end);
+      return this;
+    }
+
+    @Override
+    public PrintStream append(final char c) {
+
+      get().append(c);
+      return this;
+    }
+
+    @Override
+    public boolean checkError() {
+
+      return get().checkError();
+    }
+
     private PrintStream get() {
 
       return current().get(type);
@@ -24,12 +24,11 @@ import com.github.sbt.junit.jupiter.api.StreamPair;
 import com.github.sbt.junit.jupiter.internal.Configuration;
 import com.github.sbt.junit.jupiter.internal.TestLogger;
 import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.io.PrintStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import org.junit.platform.engine.TestExecutionResult;
 import org.junit.platform.launcher.TestExecutionListener;
@@ -41,20 +40,28 @@ import org.junit.platform.launcher.TestPlan;
  */
 public class OutputCapturingTestListener implements TestExecutionListener {
 
-  private final Map<String, CapturedOutputStream> outputStreamMap = new ConcurrentHashMap<>();
+  private final ExecutionStates executionStates;
   private final Consumer<String> outputConsumer;
   private final Consumer<String> errorConsumer;
   private final StreamPair systemStreamPair;
   private final TestLogger testLogger;
   private final boolean isQuiet;
+  private final boolean isParallel;
+  private final int quietOutputLimit;
 
   public OutputCapturingTestListener(Configuration configuration, StreamPair systemStreamPair) {
 
     this.isQuiet = configuration.getOptions().isQuiet();
+    this.isParallel = configuration.getOptions().isParallel();
+    this.quietOutputLimit =
+        0 < configuration.getOptions().getQuietOutputLimit()
+            ? configuration.getOptions().getQuietOutputLimit()
+            : Integer.MAX_VALUE;
     this.testLogger = configuration.getLogger();
     this.outputConsumer = isQuiet ? testLogger::debug : testLogger::info;
     this.errorConsumer = testLogger::error;
     this.systemStreamPair = systemStreamPair;
+    this.executionStates = configuration.getExecutionStates();
   }
 
   @Override
@@ -72,60 +79,207 @@ public class OutputCapturingTestListener implements TestExecutionListener {
   @Override
   public void executionStarted(TestIdentifier identifier) {
 
-    outputStreamMap.computeIfAbsent(
-        identifier.getUniqueId(),
-        key -> {
-          final CapturedOutputStream outputStream = new CapturedOutputStream(outputConsumer);
-          final CapturedOutputStream errorStream = new CapturedOutputStream(errorConsumer);
+    ExecutionStates.ExecutionState state = executionStates.get(identifier);
+    if (null != state.capturedStreams()) {
+      return;
+    }
 
-          OutputCapture.register(
-              new PrintStream(outputStream, true), new PrintStream(errorStream, true));
+    // output of concurrently executed tests is deferred until the test has finished
+    final DeferredOutput deferredOutput = isParallel ? new DeferredOutput() : null;
 
-          return outputStream;
-        });
+    // output is only replayed for failed tests in quiet mode
+    final int retainedLines = isQuiet && identifier.isTest() ? quietOutputLimit : 0;
+    final CapturedOutputStream outputStream =
+        new CapturedOutputStream(deferred(deferredOutput, outputConsumer), retainedLines);
+    final CapturedOutputStream errorStream =
+        new CapturedOutputStream(deferred(deferredOutput, errorConsumer), 0);
+
+    OutputCapture.register(new PrintStream(outputStream, true), new PrintStream(errorStream, true));
+
+    state.capturedStreams(new CapturedStreams(outputStream, errorStream, deferredOutput));
+  }
+
+  private static Consumer<String> deferred(DeferredOutput output, Consumer<String> consumer) {
+
+    return null == output ? consumer : output.to(consumer);
   }
 
   @Override
   public void executionFinished(TestIdentifier identifier, TestExecutionResult result) {
 
-    CapturedOutputStream outputStream = outputStreamMap.remove(identifier.getUniqueId());
-    if (null == outputStream) {
+    CapturedStreams streams =
+        executionStates
+            .find(identifier)
+            .map(ExecutionStates.ExecutionState::capturedStreams)
+            .orElse(null);
+    if (null == streams) {
       return;
     }
 
     OutputCapture.deregister();
 
-    if (isQuiet) {
-      if (identifier.isTest()) {
-        if (!SUCCESSFUL.equals(result.getStatus())) {
-          outputStream.output.forEach(testLogger::info);
-          outputStream.output.clear();
+    CapturedOutputStream outputStream = streams.outputStream;
+    outputStream.close();
+    streams.errorStream.close();
+
+    testLogger.atomically(
+        () -> {
+          if (null != streams.deferredOutput) {
+            streams.deferredOutput.replay();
+          }
+
+          if (isQuiet) {
+            if (identifier.isTest()) {
+              if (!SUCCESSFUL.equals(result.getStatus())) {
+                if (0 < outputStream.droppedLines) {
+                  testLogger.info("[" + outputStream.droppedLines + " lines of output dropped]");
+                }
+                outputStream.output.forEach(testLogger::info);
+                outputStream.output.clear();
+              }
+            }
+          }
+        });
+  }
+
+  /** The output and error streams captured for a single test identifier. */
+  static class CapturedStreams {
+
+    final CapturedOutputStream outputStream;
+    final CapturedOutputStream errorStream;
+    final DeferredOutput deferredOutput;
+
+    CapturedStreams(
+        CapturedOutputStream outputStream,
+        CapturedOutputStream errorStream,
+        DeferredOutput deferredOutput) {
+
+      this.outputStream = outputStream;
+      this.errorStream = errorStream;
+      this.deferredOutput = deferredOutput;
+    }
+  }
+
+  /**
+   * Buffers the output and error lines of a single test in the order they were written, so that
+   * they can be logged as one block once the test has finished.
+   */
+  static class DeferredOutput {
+
+    private final List<Runnable> lines = new ArrayList<>();
+
+    /**
+     * @param consumer The consumer which finally receives the lines.
+     * @return A consumer which buffers lines until {@link #replay()} is called.
+     */
+    Consumer<String> to(Consumer<String> consumer) {
+
+      return line -> {
+        synchronized (lines) {
+          lines.add(() -> consumer.accept(line));
         }
+      };
+    }
+
+    /** Passes all buffered lines to their consumers. */
+    void replay() {
+
+      synchronized (lines) {
+        lines.forEach(Runnable::run);
+        lines.clear();
       }
     }
   }
 
+  /**
+   * Splits written bytes into lines and passes complete lines to a consumer.
+   *
+   * <p>Each flush only scans bytes which have been written since the previous flush. Incomplete
+   * lines remain buffered until they are terminated or the stream is closed.
+   *
+   * <p>Only the last {@code maxRetainedLines} lines are retained in {@link #output}, older lines
+   * are dropped and counted in {@link #droppedLines}.
+   */
   static class CapturedOutputStream extends ByteArrayOutputStream {
 
     final Consumer<String> consumer;
-    final List<String> output = new ArrayList<>();
+    final Deque<String> output = new ArrayDeque<>();
+    final int maxRetainedLines;
+    int droppedLines;
+
+    /** Number of buffered bytes which are known to contain no line terminator. */
+    private int scanned;
 
     CapturedOutputStream(Consumer<String> consumer) {
 
+      this(consumer, Integer.MAX_VALUE);
+    }
+
+    CapturedOutputStream(Consumer<String> consumer, int maxRetainedLines) {
+
       this.consumer = consumer;
+      this.maxRetainedLines = maxRetainedLines;
     }
 
     @Override
-    public void flush() throws IOException {
+    public synchronized void flush() {
 
-      final String[] lines = toString().split("\\r?\\n");
-      for (String line : lines) {
-        if (!line.isEmpty()) {
-          consumer.accept(line);
-          output.add(line);
+      int start = 0;
+      for (int i = scanned; i < count; i++) {
+        if (buf[i] == '\n') {
+          emit(start, i);
+          start = i + 1;
         }
       }
+
+      if (start > 0) {
+        System.arraycopy(buf, start, buf, 0, count - start);
+        count -= start;
+      }
+      scanned = count;
+    }
+
+    @Override
+    public synchronized void close() {
+
+      flush();
+      emit(0, count);
       reset();
     }
+
+    @Override
+    public synchronized void reset() {
+
+      super.reset();
+      scanned = 0;
+    }
+
+    private void retain(String line) {
+
+      if (0 == maxRetainedLines) {
+        droppedLines++;
+        return;
+      }
+
+      if (output.size() == maxRetainedLines) {
+        output.removeFirst();
+        droppedLines++;
+      }
+      output.addLast(line);
+    }
+
+    /** Emits the line between the given positions, excluding a trailing carriage return. */
+    private void emit(int start, int end) {
+
+      if (end > start && buf[end - 1] == '\r') {
+        end--;
+      }
+
+      if (end > start) {
+        final String line = new String(buf, start, end - start);
+        consumer.accept(line);
+        retain(line);
+      }
+    }
   }
 }
@@ -34,6 +34,7 @@ public class SummaryPrintingTestListener extends SummaryGeneratingListener {
   private final ColorTheme colorTheme;
   private final TestLogger logger;
   private final boolean isVerbose;
+  private long startTime;
 
   public SummaryPrintingTestListener(Configuration configuration) {
 
@@ -42,11 +43,18 @@ public class SummaryPrintingTestListener extends SummaryGeneratingListener {
     this.logger = configuration.getLogger();
   }
 
+  @Override
+  public void testPlanExecutionStarted(TestPlan testPlan) {
+
+    super.testPlanExecutionStarted(testPlan);
+    startTime = System.nanoTime();
+  }
+
   @Override
   public void testPlanExecutionFinished(TestPlan testPlan) {
 
     TestExecutionSummary summary = getSummary();
-    long testRunDuration = System.currentTimeMillis() - summary.getTimeStarted();
+    long testRunDurationNanos = System.nanoTime() - startTime;
 
     long totalFailureCount = summary.getTotalFailureCount();
     long testsSkippedCount = summary.getTestsSkippedCount();
@@ -63,7 +71,7 @@ public class SummaryPrintingTestListener extends SummaryGeneratingListener {
             + ignoreColor.format(testsSkippedCount + " ignored")
             + colorTheme.info().format(", ")
             + colorTheme.info().format(totalTestsFound + " total, ")
-            + colorTheme.info().format(testRunDuration / 1000.0 + "s"));
+            + colorTheme.info().format(Durations.format(testRunDurationNanos)));
   }
 
   private void debugOrInfo(String message) {
@@ -22,7 +22,6 @@ import com.github.sbt.junit.jupiter.api.JupiterTestListener;
 import com.github.sbt.junit.jupiter.internal.ColorTheme;
 import com.github.sbt.junit.jupiter.internal.Configuration;
 import com.github.sbt.junit.jupiter.internal.TestLogger;
-import java.util.Objects;
 import java.util.Optional;
 import org.junit.platform.engine.TestDescriptor;
 import org.junit.platform.engine.TestExecutionResult;
@@ -35,11 +34,10 @@ import org.junit.platform.launcher.TestPlan;
  */
 public class TreePrintingTestListener implements JupiterTestListener {
 
-  private TestPlan testPlan;
+  private volatile TestPlan testPlan;
   private final TestLogger logger;
   private final ColorTheme colorTheme;
   private final Configuration configuration;
-  private String indent = "";
 
   public TreePrintingTestListener(Configuration configuration) {
 
@@ -69,23 +67,19 @@ public class TreePrintingTestListener implements JupiterTestListener {
   @Override
   public void executionSkipped(TestIdentifier testIdentifier, String reason) {
 
-    maybeIncreaseIndent(testIdentifier);
-
     String fqn = colorTheme.info().format(testIdentifier.getDisplayName());
     String prefix = testIdentifier.isTest() ? colorTheme.ignoreCount().format("o ") : "";
 
-    log(prefix + fqn);
+    log(testIdentifier, prefix + fqn);
   }
 
   @Override
   public void executionStarted(TestIdentifier testIdentifier) {
 
-    maybeIncreaseIndent(testIdentifier);
-
     String fqn = colorTheme.info().format(testIdentifier.getDisplayName());
     String prefix = testIdentifier.isTest() ? colorTheme.successful().format("+ ") : "";
 
-    log(prefix + fqn);
+    log(testIdentifier, prefix + fqn);
   }
 
   @Override
@@ -113,53 +107,34 @@ public class TreePrintingTestListener implements JupiterTestListener {
         logger.debug(message);
         break;
     }
-
-    maybeDecreaseIndent(identifier);
   }
 
   @Override
   public void reportingEntryPublished(TestIdentifier testIdentifier, ReportEntry entry) {}
 
   /**
-   * Increases current indent if the specified identifier has a parent container.
+   * Calculates the indent of the specified identifier from its number of ancestors.
    *
-   * @param identifier The test identifier.
-   */
-  private void maybeIncreaseIndent(TestIdentifier identifier) {
-
-    if (hasParentContainer(identifier)) {
-      indent += "  ";
-    }
-  }
-
-  /**
-   * Decreases current indent if the specified identifier has a parent container.
+   * <p>The indent is not tracked across events, so that it stays correct if tests are executed
+   * concurrently.
    *
    * @param identifier The test identifier.
+   * @return Two spaces for each ancestor of the specified identifier.
    */
-  private void maybeDecreaseIndent(TestIdentifier identifier) {
+  private String indent(TestIdentifier identifier) {
 
-    if (hasParentContainer(identifier)) {
-      indent = indent.length() > 1 ? indent.substring(2) : "";
+    StringBuilder indent = new StringBuilder();
+    Optional<TestIdentifier> parent = testPlan.getParent(identifier);
+    while (parent.isPresent()) {
+      indent.append("  ");
+      parent = testPlan.getParent(parent.get());
     }
-  }
 
-  /**
-   * @param identifier The test identifier to check.
-   * @return True, if the specified identifier has a parent container.
-   */
-  private boolean hasParentContainer(TestIdentifier identifier) {
-
-    return Optional.of(identifier)
-        .flatMap(testPlan::getParent)
-        .filter(Objects::nonNull)
-        .filter(TestIdentifier::isContainer)
-        .map(t -> true)
-        .orElse(false);
+    return indent.toString();
   }
 
-  private void log(String message) {
+  private void log(TestIdentifier identifier, String message) {
 
-    logger.info(indent + message);
+    logger.info(indent(identifier) + message);
   }
 }
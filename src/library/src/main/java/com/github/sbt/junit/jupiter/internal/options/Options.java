@@ -50,6 +50,17 @@ public class Options {
   private final boolean launcherDiscoveryListenerAutoRegistrationEnabled;
   private final boolean testExecutionListenerAutoRegistrationEnabled;
   private final boolean postDiscoveryFilterAutoRegistrationEnabled;
+  private final boolean batchByPackage;
+  private final int batchSize;
+  private final int quietOutputLimit;
+  private final String durationsPath;
+  private final boolean parallel;
+  private final boolean virtualThreads;
+  private final int virtualThreadsLimit;
+  private final String failuresPath;
+  private final boolean failFast;
+  private final boolean rerunFailed;
+  private final String changedClassesPath;
   private final List<String> testEngines;
   private final List<String> launcherSessionListeners;
   private final List<String> launcherDiscoveryListeners;
@@ -61,6 +72,8 @@ public class Options {
   private final Set<String> globPatterns;
   private final Map<String, String> systemProperties;
   private final String displayMode;
+  private final String dispatchEventsTracePath;
+  private final String dispatchEventsTraceFormat;
   private final String runListener;
 
   /**
@@ -83,6 +96,8 @@ public class Options {
     traceDispatchEvents = builder.traceDispatchEvents;
     typesEnabled = builder.typesEnabled;
     displayMode = builder.displayMode;
+    dispatchEventsTracePath = builder.dispatchEventsTracePath;
+    dispatchEventsTraceFormat = builder.dispatchEventsTraceFormat;
     testEngineAutoRegistrationEnabled = builder.testEngineAutoRegistrationEnabled;
     launcherSessionListenerAutoRegistrationEnabled =
         builder.launcherSessionListenerAutoRegistrationEnabled;
@@ -96,6 +111,17 @@ public class Options {
     launcherDiscoveryListeners = builder.launcherDiscoveryListeners;
     testExecutionListeners = builder.testExecutionListeners;
     postDiscoveryFilters = builder.postDiscoveryFilters;
+    batchByPackage = builder.batchByPackage;
+    batchSize = builder.batchSize;
+    quietOutputLimit = builder.quietOutputLimit;
+    durationsPath = builder.durationsPath;
+    parallel = builder.parallel;
+    virtualThreads = builder.virtualThreads;
+    virtualThreadsLimit = builder.virtualThreadsLimit;
+    failuresPath = builder.failuresPath;
+    failFast = builder.failFast;
+    rerunFailed = builder.rerunFailed;
+    changedClassesPath = builder.changedClassesPath;
   }
 
   /**
@@ -185,7 +211,15 @@ public class Options {
    */
   public Optional<String> getDispatchEventsTracePath() {
 
-    return Optional.ofNullable(traceDispatchEvents ? DISPATCH_EVENTS_TRACE_PATH : null);
+    return Optional.ofNullable(traceDispatchEvents ? dispatchEventsTracePath : null);
+  }
+
+  /**
+   * @return The format in which dispatch events are logged (either {@code text} or {@code jsonl}).
+   */
+  public String getDispatchEventsTraceFormat() {
+
+    return dispatchEventsTraceFormat;
   }
 
   /**
@@ -308,6 +342,101 @@ public class Options {
     return postDiscoveryFilters;
   }
 
+  /**
+   * @return The maximum number of test classes which are discovered and executed together in a
+   *     single launcher request, or {@code 0} if no batch size was specified.
+   */
+  public int getBatchSize() {
+
+    return batchSize;
+  }
+
+  /**
+   * @return {@code True}, if only test classes of the same package should be batched together.
+   */
+  public boolean isBatchByPackage() {
+
+    return batchByPackage;
+  }
+
+  /**
+   * @return The maximum number of output lines per test which are retained in quiet mode in order
+   *     to be replayed if the test fails, or {@code 0} if all lines are retained.
+   */
+  public int getQuietOutputLimit() {
+
+    return quietOutputLimit;
+  }
+
+  /**
+   * @return An optional path to a file where test suite durations are stored in order to execute
+   *     the slowest test suites first.
+   */
+  public Optional<String> getDurationsPath() {
+
+    return Optional.ofNullable(durationsPath);
+  }
+
+  /**
+   * @return {@code True}, if the tests of a task should be executed in parallel by JUnit Jupiter.
+   */
+  public boolean isParallel() {
+
+    return parallel;
+  }
+
+  /**
+   * @return {@code True}, if the test classes of a task should be executed concurrently on virtual
+   *     threads (if supported by the JVM).
+   */
+  public boolean isVirtualThreads() {
+
+    return virtualThreads;
+  }
+
+  /**
+   * @return The maximum number of test classes which are executed concurrently on virtual threads,
+   *     or {@code 0} if no limit was specified.
+   */
+  public int getVirtualThreadsLimit() {
+
+    return virtualThreadsLimit;
+  }
+
+  /**
+   * @return An optional path to a file where failed tests are stored in order to execute the test
+   *     suites which failed previously first.
+   */
+  public Optional<String> getFailuresPath() {
+
+    return Optional.ofNullable(failuresPath);
+  }
+
+  /**
+   * @return {@code True}, if all remaining tests should be skipped after the first failure.
+   */
+  public boolean isFailFast() {
+
+    return failFast;
+  }
+
+  /**
+   * @return {@code True}, if only the tests which failed in the previous run should be executed.
+   */
+  public boolean isRerunFailed() {
+
+    return rerunFailed;
+  }
+
+  /**
+   * @return An optional path to a file where test discovery stores changed test suites in order to
+   *     execute them first.
+   */
+  public Optional<String> getChangedClassesPath() {
+
+    return Optional.ofNullable(changedClassesPath);
+  }
+
   /**
    * @author Michael Aichler
    */
@@ -326,6 +455,9 @@ public class Options {
     private boolean launcherDiscoveryListenerAutoRegistrationEnabled = true;
     private boolean testExecutionListenerAutoRegistrationEnabled = true;
     private boolean postDiscoveryFilterAutoRegistrationEnabled = true;
+    private boolean batchByPackage = false;
+    private int batchSize = 0;
+    private int quietOutputLimit = 0;
     private List<String> testEngines = new ArrayList<>();
     private List<String> launcherSessionListeners = new ArrayList<>();
     private List<String> launcherDiscoveryListeners = new ArrayList<>();
@@ -337,7 +469,17 @@ public class Options {
     private Set<String> globPatterns = new HashSet<>();
     private Map<String, String> systemProperties = new HashMap<>();
     private String displayMode = "flat";
+    private String dispatchEventsTracePath = DISPATCH_EVENTS_TRACE_PATH;
+    private String dispatchEventsTraceFormat = "text";
     private String runListener;
+    private String durationsPath;
+    private boolean parallel = false;
+    private boolean virtualThreads = false;
+    private int virtualThreadsLimit = 0;
+    private String failuresPath;
+    private boolean failFast = false;
+    private boolean rerunFailed = false;
+    private String changedClassesPath;
 
     Builder withQuiet(boolean value) {
 
@@ -387,6 +529,19 @@ public class Options {
       return this;
     }
 
+    Builder withDispatchEventsTracePath(String value) {
+
+      this.traceDispatchEvents = true;
+      this.dispatchEventsTracePath = value;
+      return this;
+    }
+
+    Builder withDispatchEventsTraceFormat(String value) {
+
+      this.dispatchEventsTraceFormat = value;
+      return this;
+    }
+
     Builder withTestFilters(Set<String> value) {
 
       this.testFilters.addAll(value);
@@ -489,6 +644,72 @@ public class Options {
       return this;
     }
 
+    Builder withBatchSize(int value) {
+
+      this.batchSize = value;
+      return this;
+    }
+
+    Builder withBatchByPackage(boolean value) {
+
+      this.batchByPackage = value;
+      return this;
+    }
+
+    Builder withQuietOutputLimit(int value) {
+
+      this.quietOutputLimit = value;
+      return this;
+    }
+
+    Builder withDurationsPath(String value) {
+
+      this.durationsPath = value;
+      return this;
+    }
+
+    Builder withParallel(boolean value) {
+
+      this.parallel = value;
+      return this;
+    }
+
+    Builder withVirtualThreads(boolean value) {
+
+      this.virtualThreads = value;
+      return this;
+    }
+
+    Builder withVirtualThreadsLimit(int value) {
+
+      this.virtualThreadsLimit = value;
+      return this;
+    }
+
+    Builder withFailuresPath(String value) {
+
+      this.failuresPath = value;
+      return this;
+    }
+
+    Builder withFailFast(boolean value) {
+
+      this.failFast = value;
+      return this;
+    }
+
+    Builder withRerunFailed(boolean value) {
+
+      this.rerunFailed = value;
+      return this;
+    }
+
+    Builder withChangedClassesPath(String value) {
+
+      this.changedClassesPath = value;
+      return this;
+    }
+
     public Options build() {
 
       return new Options(this);
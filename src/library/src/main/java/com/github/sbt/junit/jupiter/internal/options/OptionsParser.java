@@ -18,9 +18,11 @@
  */
 package com.github.sbt.junit.jupiter.internal.options;
 
+import com.github.sbt.junit.jupiter.internal.event.EventTraceFormat;
 import java.util.AbstractMap;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -32,6 +34,8 @@ public class OptionsParser {
 
   private static final String OPT_TESTS = "--tests=";
   private static final String OPT_TRACE_DISPATCH_EVENTS = "--trace-dispatch-events";
+  private static final String OPT_TRACE_DISPATCH_EVENTS_PATH = "--trace-dispatch-events=";
+  private static final String OPT_TRACE_FORMAT = "--trace-format=";
   private static final String OPT_DISPLAY_MODE = "--display-mode=";
   private static final String OPT_RUN_LISTENER = "--run-listener=";
   private static final String OPT_INCLUDE_TAGS = "--include-tags=";
@@ -51,6 +55,17 @@ public class OptionsParser {
   private static final String OPT_LAUNCHER_DISCOVERY_LISTENERS = "--launcher-discovery-listeners=";
   private static final String OPT_TEST_EXECUTION_LISTENERS = "--test-execution-listeners=";
   private static final String OPT_POST_DISCOVERY_FILTERS = "--post-discovery-filters=";
+  private static final String OPT_BATCH_SIZE = "--batch-size=";
+  private static final String OPT_BATCH_BY_PACKAGE = "--batch-by-package";
+  private static final String OPT_QUIET_OUTPUT_LIMIT = "--quiet-output-limit=";
+  private static final String OPT_DURATIONS_FILE = "--durations-file=";
+  private static final String OPT_PARALLEL = "--parallel";
+  private static final String OPT_VIRTUAL_THREADS = "--virtual-threads";
+  private static final String OPT_VIRTUAL_THREADS_LIMIT = "--virtual-threads=";
+  private static final String OPT_FAILURES_FILE = "--failures-file=";
+  private static final String OPT_FAIL_FAST = "--fail-fast";
+  private static final String OPT_RERUN_FAILED = "--rerun-failed";
+  private static final String OPT_CHANGED_CLASSES_FILE = "--changed-classes-file=";
 
   public Options parse(String[] arguments) {
 
@@ -67,7 +82,11 @@ public class OptionsParser {
       else if (arg.startsWith(OPT_DISPLAY_MODE))
         builder.withDisplayMode(toValue(OPT_DISPLAY_MODE, arg));
       else if (arg.startsWith(OPT_TESTS)) builder.withTestFilters(toSet(OPT_TESTS, arg));
+      else if (arg.startsWith(OPT_TRACE_DISPATCH_EVENTS_PATH))
+        builder.withDispatchEventsTracePath(toValue(OPT_TRACE_DISPATCH_EVENTS_PATH, arg));
       else if (arg.startsWith(OPT_TRACE_DISPATCH_EVENTS)) builder.withTraceDispatchEvents(true);
+      else if (arg.startsWith(OPT_TRACE_FORMAT))
+        builder.withDispatchEventsTraceFormat(toTraceFormat(OPT_TRACE_FORMAT, arg));
       else if (arg.startsWith(OPT_RUN_LISTENER))
         builder.withRunListener(toValue(OPT_RUN_LISTENER, arg));
       else if (arg.startsWith(OPT_INCLUDE_TAGS))
@@ -99,6 +118,25 @@ public class OptionsParser {
         builder.withTestExecutionListeners(toList(OPT_TEST_EXECUTION_LISTENERS, arg));
       else if (arg.startsWith(OPT_POST_DISCOVERY_FILTERS))
         builder.withPostDiscoveryFilters(toList(OPT_POST_DISCOVERY_FILTERS, arg));
+      else if (arg.startsWith(OPT_BATCH_SIZE))
+        builder.withBatchSize(toPositiveInt(OPT_BATCH_SIZE, arg));
+      else if (OPT_BATCH_BY_PACKAGE.equals(arg)) builder.withBatchByPackage(true);
+      else if (arg.startsWith(OPT_QUIET_OUTPUT_LIMIT))
+        builder.withQuietOutputLimit(toPositiveInt(OPT_QUIET_OUTPUT_LIMIT, arg));
+      else if (arg.startsWith(OPT_DURATIONS_FILE))
+        builder.withDurationsPath(toValue(OPT_DURATIONS_FILE, arg));
+      else if (OPT_PARALLEL.equals(arg)) builder.withParallel(true);
+      else if (OPT_VIRTUAL_THREADS.equals(arg)) builder.withVirtualThreads(true);
+      else if (arg.startsWith(OPT_VIRTUAL_THREADS_LIMIT))
+        builder
+            .withVirtualThreads(true)
+            .withVirtualThreadsLimit(toPositiveInt(OPT_VIRTUAL_THREADS_LIMIT, arg));
+      else if (arg.startsWith(OPT_FAILURES_FILE))
+        builder.withFailuresPath(toValue(OPT_FAILURES_FILE, arg));
+      else if (OPT_FAIL_FAST.equals(arg)) builder.withFailFast(true);
+      else if (OPT_RERUN_FAILED.equals(arg)) builder.withRerunFailed(true);
+      else if (arg.startsWith(OPT_CHANGED_CLASSES_FILE))
+        builder.withChangedClassesPath(toValue(OPT_CHANGED_CLASSES_FILE, arg));
       else if (arg.startsWith("-D") && arg.contains("=")) builder.withSystemProperty(toEntry(arg));
       else if (!arg.startsWith("-") && !arg.startsWith("+")) builder.withGlobPattern(arg);
     }
@@ -172,6 +210,32 @@ public class OptionsParser {
         "Invalid boolean value in argument '" + arg + "': expected 'true' or 'false'");
   }
 
+  private String toTraceFormat(String prefix, String arg) {
+
+    String value = arg.substring(prefix.length());
+    try {
+      return EventTraceFormat.of(value).name().toLowerCase(Locale.ROOT);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException(
+          "Invalid value in argument '" + arg + "': expected 'text' or 'jsonl'");
+    }
+  }
+
+  private int toPositiveInt(String prefix, String arg) {
+
+    String value = arg.substring(prefix.length());
+    try {
+      int result = Integer.parseInt(value.trim());
+      if (result > 0) {
+        return result;
+      }
+    } catch (NumberFormatException e) {
+      // reported below
+    }
+    throw new IllegalArgumentException(
+        "Invalid value in argument '" + arg + "': expected a positive integer");
+  }
+
   private static final char DQ = '"';
   private static final char SQ = '\'';
 
@@ -0,0 +1,138 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.api;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JupiterTestCollectorTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void shouldDiscoverTestsWithSpecifiedClassLoaderOnly() throws Exception {
+
+    Class<?> testClass = Class.forName("jupiter.samples.SimpleTests");
+    File classDirectory =
+        new File(testClass.getProtectionDomain().getCodeSource().getLocation().toURI());
+
+    JupiterTestCollector collector =
+        new JupiterTestCollector.Builder()
+            .withClassDirectory(classDirectory)
+            .withClassLoader(getClass().getClassLoader())
+            .build();
+
+    List<String> result =
+        collector.collectTests().getDiscoveredTests().stream()
+            .map(JupiterTestCollector.Item::getFullyQualifiedClassName)
+            .collect(Collectors.toList());
+
+    assertThat(result, hasItem(testClass.getName()));
+  }
+
+  @Test
+  public void shouldDiscardCachedTestsWhenSharedRuntimeClassPathChanges() throws Exception {
+
+    File classDirectory = classDirectoryOf(Class.forName("jupiter.samples.SimpleTests"));
+    File cacheFile = new File(temporaryFolder.getRoot(), "discovery.cache");
+    File engineJar = temporaryFolder.newFile("engine.jar");
+    File vintageJar = temporaryFolder.newFile("vintage.jar");
+
+    collectShared(classDirectory, cacheFile, engineJar);
+    String key = cacheKey(cacheFile);
+
+    collectShared(classDirectory, cacheFile, engineJar);
+    assertThat(cacheKey(cacheFile), is(key));
+
+    collectShared(classDirectory, cacheFile, engineJar, vintageJar);
+    assertThat(cacheKey(cacheFile), is(not(key)));
+
+    key = cacheKey(cacheFile);
+    Files.write(engineJar.toPath(), new byte[] {1, 2, 3});
+    collectShared(classDirectory, cacheFile, engineJar, vintageJar);
+    assertThat(cacheKey(cacheFile), is(not(key)));
+  }
+
+  @Test
+  public void shouldDiscardCachedTestsWhenDependentClassDirectoryChanges() throws Exception {
+
+    File classDirectory = classDirectoryOf(Class.forName("jupiter.samples.SimpleTests"));
+    File cacheFile = new File(temporaryFolder.getRoot(), "discovery.cache");
+    File mainClasses = temporaryFolder.newFolder("main-classes");
+    File mainClass = new File(mainClasses, "Main.class");
+    Files.write(mainClass.toPath(), new byte[] {1});
+
+    collectShared(classDirectory, cacheFile, mainClasses);
+    String key = cacheKey(cacheFile);
+
+    collectShared(classDirectory, cacheFile, mainClasses);
+    assertThat(cacheKey(cacheFile), is(key));
+
+    Files.write(mainClass.toPath(), new byte[] {1, 2});
+    collectShared(classDirectory, cacheFile, mainClasses);
+    assertThat(cacheKey(cacheFile), is(not(key)));
+
+    key = cacheKey(cacheFile);
+    Files.write(new File(mainClasses, "Other.class").toPath(), new byte[] {1});
+    collectShared(classDirectory, cacheFile, mainClasses);
+    assertThat(cacheKey(cacheFile), is(not(key)));
+  }
+
+  private void collectShared(File classDirectory, File cacheFile, File... jars) throws Exception {
+
+    URL[] runtimeClassPath = new URL[jars.length + 1];
+    for (int i = 0; i < jars.length; i++) {
+      runtimeClassPath[i] = jars[i].toURI().toURL();
+    }
+    runtimeClassPath[jars.length] = classDirectory.toURI().toURL();
+
+    new JupiterTestCollector.Builder()
+        .withClassDirectory(classDirectory)
+        .withDiscoveryCacheFile(cacheFile)
+        .withClassLoader(getClass().getClassLoader())
+        .withRuntimeClassPath(runtimeClassPath)
+        .withSharedClassLoaderEnabled(true)
+        .build()
+        .collectTests();
+  }
+
+  private static String cacheKey(File cacheFile) throws Exception {
+
+    return Files.readAllLines(cacheFile.toPath()).stream()
+        .filter(line -> line.startsWith("key\t"))
+        .findFirst()
+        .orElse("");
+  }
+
+  private static File classDirectoryOf(Class<?> testClass) throws Exception {
+
+    return new File(testClass.getProtectionDomain().getCodeSource().getLocation().toURI());
+  }
+}
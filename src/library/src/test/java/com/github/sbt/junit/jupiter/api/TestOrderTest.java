@@ -0,0 +1,109 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.api;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+import com.github.sbt.junit.jupiter.internal.ChangedClassStore;
+import com.github.sbt.junit.jupiter.internal.DurationStore;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestOrderTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final List<String> names = Arrays.asList("a.A", "a.B", "b.C", "b.D");
+
+  @Test
+  public void shouldKeepOrderWithoutStores() {
+
+    assertThat(TestOrder.order(names, null, null, null), contains("a.A", "a.B", "b.C", "b.D"));
+  }
+
+  @Test
+  public void shouldOrderSlowestTestClassesFirst() {
+
+    File durationsFile = new File(temporaryFolder.getRoot(), "durations");
+    DurationStore store = new DurationStore(durationsFile.getPath());
+    store.record("a.A", 10);
+    store.record("a.B", 1000);
+    store.record("b.D", 100);
+    store.save();
+
+    assertThat(
+        TestOrder.order(names, durationsFile, null, null), contains("b.C", "a.B", "b.D", "a.A"));
+  }
+
+  @Test
+  public void shouldOrderChangedTestClassesBeforeSlowestTestClasses() {
+
+    File durationsFile = new File(temporaryFolder.getRoot(), "durations");
+    DurationStore store = new DurationStore(durationsFile.getPath());
+    store.record("a.A", 10);
+    store.record("a.B", 1000);
+    store.record("b.C", 10);
+    store.record("b.D", 100);
+    store.save();
+
+    File changedClassesFile = new File(temporaryFolder.getRoot(), "changed");
+    new ChangedClassStore(changedClassesFile.getPath()).add(Arrays.asList("a.A", "b.D"));
+
+    assertThat(
+        TestOrder.order(names, durationsFile, null, changedClassesFile),
+        contains("b.D", "a.A", "a.B", "b.C"));
+  }
+
+  @Test
+  public void shouldOrderChangedTestClassesFirst() {
+
+    File changedClassesFile = new File(temporaryFolder.getRoot(), "changed");
+    new ChangedClassStore(changedClassesFile.getPath()).add(Arrays.asList("b.D", "a.B"));
+
+    assertThat(
+        TestOrder.order(names, null, null, changedClassesFile),
+        contains("a.B", "b.D", "a.A", "b.C"));
+  }
+
+  @Test
+  public void shouldOrderFailedTestClassesBeforeChangedTestClasses() throws IOException {
+
+    File changedClassesFile = new File(temporaryFolder.getRoot(), "changed");
+    new ChangedClassStore(changedClassesFile.getPath()).add(Collections.singleton("a.B"));
+
+    File failuresFile = temporaryFolder.newFile("failures");
+    Files.write(
+        failuresFile.toPath(),
+        Arrays.asList("jupiter-failures 1", "b.C\tsuite"),
+        StandardCharsets.UTF_8);
+
+    assertThat(
+        TestOrder.order(names, null, failuresFile, changedClassesFile),
+        contains("b.C", "a.B", "a.A", "b.D"));
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.api;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+import com.github.sbt.junit.jupiter.internal.DurationStore;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestShardsTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final List<String> names = Arrays.asList("a.A", "a.B", "b.C", "b.D", "c.E", "c.F", "d.G");
+
+  @Test
+  public void shouldPartitionAllTestClasses() {
+
+    Set<String> all = new HashSet<>();
+    for (int i = 0; i < 3; i++) {
+      Set<String> shard = TestShards.select(names, i, 3, null);
+      assertThat(Collections.disjoint(all, shard), equalTo(true));
+      assertThat(shard.size() >= 2 && shard.size() <= 3, equalTo(true));
+      all.addAll(shard);
+    }
+
+    assertThat(all, equalTo(new HashSet<>(names)));
+  }
+
+  @Test
+  public void shouldNotDependOnOrderOfTestClasses() {
+
+    List<String> reversed = new ArrayList<>(names);
+    Collections.reverse(reversed);
+
+    for (int i = 0; i < 3; i++) {
+      assertThat(
+          TestShards.select(reversed, i, 3, null), equalTo(TestShards.select(names, i, 3, null)));
+    }
+  }
+
+  @Test
+  public void shouldWeighTestClassesByRecordedDuration() {
+
+    File durationsFile = new File(temporaryFolder.getRoot(), "durations");
+    DurationStore store = new DurationStore(durationsFile.getPath());
+    store.record("a.Slow", 1000);
+    store.record("a.Fast1", 100);
+    store.record("a.Fast2", 100);
+    store.record("a.Fast3", 100);
+    store.save();
+
+    List<String> testClassNames = Arrays.asList("a.Fast1", "a.Fast2", "a.Fast3", "a.Slow");
+
+    Set<String> first = TestShards.select(testClassNames, 0, 2, durationsFile);
+    Set<String> second = TestShards.select(testClassNames, 1, 2, durationsFile);
+
+    assertThat(first, containsInAnyOrder("a.Slow"));
+    assertThat(second, hasSize(3));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectShardIndexOutOfRange() {
+
+    TestShards.select(names, 2, 2, null);
+  }
+}
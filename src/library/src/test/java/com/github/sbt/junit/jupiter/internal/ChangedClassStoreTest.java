@@ -0,0 +1,57 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ChangedClassStoreTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void shouldKeepChangedClassesUntilExecuted() {
+
+    String path = new File(temporaryFolder.getRoot(), "changed").getPath();
+
+    new ChangedClassStore(path).add(Arrays.asList("a.A", "b.B"));
+    new ChangedClassStore(path).add(Collections.singletonList("c.C"));
+
+    ChangedClassStore store = new ChangedClassStore(path);
+    assertThat(store.hasChanged("a.A"), is(true));
+    assertThat(store.hasChanged("a.A$Nested"), is(true));
+    assertThat(store.hasChanged("c.C"), is(true));
+    assertThat(store.hasChanged("d.D"), is(false));
+
+    store.record("a.A");
+    store.save();
+
+    store = new ChangedClassStore(path);
+    assertThat(store.hasChanged("a.A"), is(false));
+    assertThat(store.hasChanged("b.B"), is(true));
+    assertThat(store.hasChanged("c.C"), is(true));
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DurationStoreTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void shouldSumUpDurationsPerTestSuite() {
+
+    String path = new File(temporaryFolder.getRoot(), "durations").getPath();
+
+    DurationStore store = new DurationStore(path);
+    store.record("a.A", 10);
+    store.record("a.A", 20);
+    store.record("b.B", 5);
+    store.save();
+
+    store = new DurationStore(path);
+    assertThat(store.durationNanos("a.A").getAsLong(), equalTo(30L));
+    assertThat(store.durationNanos("b.B").getAsLong(), equalTo(5L));
+    assertThat(store.durationNanos("c.C").isPresent(), is(false));
+  }
+
+  @Test
+  public void shouldKeepDurationsOfTestSuitesWhichDidNotRun() {
+
+    String path = new File(temporaryFolder.getRoot(), "durations").getPath();
+
+    DurationStore store = new DurationStore(path);
+    store.record("a.A", 10);
+    store.record("b.B", 5);
+    store.save();
+
+    store = new DurationStore(path);
+    store.record("a.A", 7);
+    store.save();
+
+    store = new DurationStore(path);
+    assertThat(store.durationNanos("a.A").getAsLong(), equalTo(7L));
+    assertThat(store.durationNanos("b.B").getAsLong(), equalTo(5L));
+  }
+
+  @Test
+  public void shouldIgnoreUnreadableStore() throws Exception {
+
+    File file = new File(temporaryFolder.getRoot(), "durations");
+    Files.write(file.toPath(), Collections.singletonList("garbage"), StandardCharsets.UTF_8);
+
+    DurationStore store = new DurationStore(file.getPath());
+    assertThat(store.durationNanos("garbage").isPresent(), is(false));
+  }
+}
@@ -0,0 +1,187 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+import com.github.sbt.junit.jupiter.api.JupiterTestFingerprint;
+import com.github.sbt.junit.jupiter.api.UniqueIdSelector;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import sbt.testing.Event;
+import sbt.testing.Fingerprint;
+import sbt.testing.NestedTestSelector;
+import sbt.testing.OptionalThrowable;
+import sbt.testing.Selector;
+import sbt.testing.Status;
+import sbt.testing.SuiteSelector;
+import sbt.testing.TestSelector;
+
+public class FailureStoreTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void shouldStoreSelectorsOfFailedTests() {
+
+    String path = new File(temporaryFolder.getRoot(), "failures").getPath();
+
+    FailureStore store = new FailureStore(path);
+    store.record(event("a.A", new TestSelector("passed()"), Status.Success));
+    store.record(event("a.A", new TestSelector("failed()"), Status.Failure));
+    store.record(event("a.A", new NestedTestSelector("$Inner", "broken()"), Status.Error));
+    store.record(event("b.B", new TestSelector("passed()"), Status.Success));
+    store.save();
+
+    store = new FailureStore(path);
+    assertThat(store.hasFailed("a.A"), is(true));
+    assertThat(store.hasFailed("b.B"), is(false));
+    assertThat(lines(path), contains("a.A\ttest\tfailed()", "a.A\tnested-test\t$Inner\tbroken()"));
+  }
+
+  @Test
+  public void shouldStoreUniqueIdsOfFailedInvocations() {
+
+    String path = new File(temporaryFolder.getRoot(), "failures").getPath();
+    String uniqueId = "[engine:junit-jupiter]/[class:a.A]/[test-factory:test()]/[dynamic-test:#2]";
+
+    FailureStore store = new FailureStore(path);
+    store.record(
+        event("a.A", new TestSelector("test():2nd"), Status.Failure),
+        new UniqueIdSelector(uniqueId));
+    store.save();
+
+    store = new FailureStore(path);
+    assertThat(store.hasFailed("a.A"), is(true));
+    assertThat(lines(path), contains("a.A\tunique-id\t" + uniqueId));
+  }
+
+  @Test
+  public void shouldReplaceFailuresOfExecutedTestSuitesOnly() {
+
+    String path = new File(temporaryFolder.getRoot(), "failures").getPath();
+
+    FailureStore store = new FailureStore(path);
+    store.record(event("a.A", new TestSelector("failed()"), Status.Failure));
+    store.record(event("b.B", new TestSelector("failed()"), Status.Failure));
+    store.save();
+
+    store = new FailureStore(path);
+    store.record(event("a.A", new TestSelector("failed()"), Status.Success));
+    store.save();
+
+    store = new FailureStore(path);
+    assertThat(store.hasFailed("a.A"), is(false));
+    assertThat(store.hasFailed("b.B"), is(true));
+  }
+
+  @Test
+  public void shouldReplaceFailuresOfExecutedTestsOnly() {
+
+    String path = new File(temporaryFolder.getRoot(), "failures").getPath();
+
+    FailureStore store = new FailureStore(path);
+    store.record(event("a.A", new SuiteSelector(), Status.Error));
+    store.record(event("a.A", new TestSelector("a()"), Status.Failure));
+    store.record(event("a.A", new TestSelector("b()"), Status.Failure));
+    store.save();
+
+    store = new FailureStore(path);
+    store.record(event("a.A", new TestSelector("a()"), Status.Success));
+    store.record(event("a.A", new TestSelector("c()"), Status.Failure));
+    store.save();
+
+    assertThat(lines(path), contains("a.A\ttest\tb()", "a.A\ttest\tc()"));
+  }
+
+  @Test
+  public void shouldKeepFailuresOfSkippedTestSuites() {
+
+    String path = new File(temporaryFolder.getRoot(), "failures").getPath();
+
+    FailureStore store = new FailureStore(path);
+    store.record(event("a.A", new TestSelector("failed()"), Status.Failure));
+    store.record(event("b.B", new TestSelector("failed()"), Status.Failure));
+    store.save();
+
+    store = new FailureStore(path);
+    store.record(event("a.A", new SuiteSelector(), Status.Skipped));
+    store.record(event("b.B", new SuiteSelector(), Status.Canceled));
+    store.save();
+
+    store = new FailureStore(path);
+    assertThat(store.hasFailed("a.A"), is(true));
+    assertThat(store.hasFailed("b.B"), is(true));
+  }
+
+  private static List<String> lines(String path) {
+
+    try {
+      List<String> result = Files.readAllLines(Paths.get(path));
+      return result.subList(1, result.size());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static Event event(String className, Selector selector, Status status) {
+
+    return new Event() {
+
+      @Override
+      public String fullyQualifiedName() {
+        return className;
+      }
+
+      @Override
+      public Fingerprint fingerprint() {
+        return new JupiterTestFingerprint();
+      }
+
+      @Override
+      public Selector selector() {
+        return selector;
+      }
+
+      @Override
+      public Status status() {
+        return status;
+      }
+
+      @Override
+      public OptionalThrowable throwable() {
+        return new OptionalThrowable();
+      }
+
+      @Override
+      public long duration() {
+        return 0;
+      }
+    };
+  }
+}
@@ -0,0 +1,565 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThrows;
+
+import com.github.sbt.junit.jupiter.api.JupiterTestFingerprint;
+import com.github.sbt.junit.jupiter.api.StreamPair;
+import com.github.sbt.junit.jupiter.api.UniqueIdSelector;
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import junit.TestRunner.DummyEventHandler;
+import junit.TestRunner.DummyLogger;
+import jupiter.samples.ConcurrencyLimitTests;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+import org.junit.rules.TemporaryFolder;
+import sbt.testing.Event;
+import sbt.testing.Logger;
+import sbt.testing.NestedTestSelector;
+import sbt.testing.Selector;
+import sbt.testing.Status;
+import sbt.testing.SuiteSelector;
+import sbt.testing.Task;
+import sbt.testing.TaskDef;
+import sbt.testing.TestSelector;
+
+/** Tests {@link JupiterRunner} across multiple tasks. */
+public class JupiterRunnerTest {
+
+  private static final StreamPair streamPair = new StreamPair(System.out, System.err);
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private final DummyEventHandler eventHandler = new DummyEventHandler();
+  private final DummyLogger logger = new DummyLogger();
+
+  @Before
+  public void resetCounters() {
+
+    CountingSessionListener.opened.set(0);
+    CountingSessionListener.closed.set(0);
+  }
+
+  @Test
+  public void shouldShareLauncherSessionAcrossTasks() {
+
+    JupiterRunner runner =
+        newRunner("--launcher-session-listeners=" + CountingSessionListener.class.getName());
+
+    Task[] tasks =
+        runner.tasks(
+            new TaskDef[] {
+              taskDef("jupiter.samples.SimpleTests"), taskDef("jupiter.samples.NestedTests")
+            });
+    for (Task task : tasks) {
+      task.execute(eventHandler, new Logger[] {logger});
+    }
+
+    assertThat(CountingSessionListener.opened.get(), equalTo(1));
+    assertThat(CountingSessionListener.closed.get(), equalTo(0));
+
+    runner.done();
+
+    assertThat(CountingSessionListener.closed.get(), equalTo(1));
+    assertThat(eventHandler.byStatus(Status.Error), hasSize(0));
+  }
+
+  @Test
+  public void shouldNotBatchByDefault() {
+
+    JupiterRunner runner = newRunner();
+
+    Task[] tasks =
+        runner.tasks(
+            new TaskDef[] {
+              taskDef("jupiter.samples.SimpleTests"), taskDef("jupiter.samples.NestedTests")
+            });
+
+    assertThat(tasks.length, equalTo(2));
+  }
+
+  @Test
+  public void shouldBatchBySize() {
+
+    JupiterRunner runner = newRunner("--batch-size=2");
+
+    List<List<TaskDef>> batches =
+        runner.batches(
+            new TaskDef[] {taskDef("a.A"), taskDef("b.B"), taskDef("a.C"), taskDef("a.D#test")});
+
+    assertThat(batches, hasSize(3));
+    assertThat(names(batches.get(0)), contains("a.A", "b.B"));
+    assertThat(names(batches.get(1)), contains("a.C"));
+    assertThat(names(batches.get(2)), contains("a.D#test"));
+  }
+
+  @Test
+  public void shouldBatchByPackage() {
+
+    JupiterRunner runner = newRunner("--batch-by-package");
+
+    List<List<TaskDef>> batches =
+        runner.batches(
+            new TaskDef[] {taskDef("a.A"), taskDef("b.B"), taskDef("a.C"), taskDef("b.D")});
+
+    assertThat(batches, hasSize(2));
+    assertThat(names(batches.get(0)), contains("a.A", "a.C"));
+    assertThat(names(batches.get(1)), contains("b.B", "b.D"));
+  }
+
+  @Test
+  public void shouldReportEventsPerClassWhenBatching() {
+
+    JupiterRunner runner = newRunner("--batch-size=10");
+
+    Task[] tasks =
+        runner.tasks(
+            new TaskDef[] {
+              taskDef("jupiter.samples.SimpleTests"), taskDef("jupiter.samples.NestedTests")
+            });
+
+    assertThat(tasks.length, equalTo(1));
+
+    tasks[0].execute(eventHandler, new Logger[] {logger});
+    runner.done();
+
+    Set<String> names =
+        eventHandler.byStatus(Status.Success).stream()
+            .map(Event::fullyQualifiedName)
+            .collect(Collectors.toSet());
+
+    assertThat(
+        names, containsInAnyOrder("jupiter.samples.SimpleTests", "jupiter.samples.NestedTests"));
+  }
+
+  @Test
+  public void shouldOrderTasksByRecordedDuration() {
+
+    String durationsFile = new File(temporaryFolder.getRoot(), "durations").getPath();
+
+    DurationStore store = new DurationStore(durationsFile);
+    store.record("a.Fast", 10);
+    store.record("a.Slow", 1000);
+    store.record("a.Medium", 100);
+    store.save();
+
+    JupiterRunner runner = newRunner("--durations-file=" + durationsFile);
+
+    Task[] tasks =
+        runner.tasks(
+            new TaskDef[] {
+              taskDef("a.Fast"), taskDef("a.Medium"), taskDef("a.New"), taskDef("a.Slow")
+            });
+
+    assertThat(
+        Arrays.stream(tasks).map(task -> task.taskDef().fullyQualifiedName()).toArray(),
+        equalTo(new Object[] {"a.New", "a.Slow", "a.Medium", "a.Fast"}));
+  }
+
+  @Test
+  public void shouldRecordDurationsOfExecutedTasks() {
+
+    String durationsFile = new File(temporaryFolder.getRoot(), "durations").getPath();
+
+    JupiterRunner runner = newRunner("--durations-file=" + durationsFile);
+    for (Task task : runner.tasks(new TaskDef[] {taskDef("jupiter.samples.SimpleTests")})) {
+      task.execute(eventHandler, new Logger[] {logger});
+    }
+    runner.done();
+
+    DurationStore store = new DurationStore(durationsFile);
+    assertThat(store.durationNanos("jupiter.samples.SimpleTests").isPresent(), equalTo(true));
+  }
+
+  @Test
+  public void shouldSaveStoresIfTraceCannotBeWritten() {
+
+    String durationsFile = new File(temporaryFolder.getRoot(), "durations").getPath();
+    String traceFile = temporaryFolder.getRoot().getPath();
+
+    JupiterRunner runner =
+        newRunner("--durations-file=" + durationsFile, "--trace-dispatch-events=" + traceFile);
+    for (Task task : runner.tasks(new TaskDef[] {taskDef("jupiter.samples.SimpleTests")})) {
+      task.execute(eventHandler, new Logger[] {logger});
+    }
+
+    assertThrows(UncheckedIOException.class, runner::done);
+
+    DurationStore store = new DurationStore(durationsFile);
+    assertThat(store.durationNanos("jupiter.samples.SimpleTests").isPresent(), equalTo(true));
+  }
+
+  @Test
+  public void shouldRecordDurationsIncludingClassLevelSetup() {
+
+    String durationsFile = new File(temporaryFolder.getRoot(), "durations").getPath();
+
+    JupiterRunner runner = newRunner("--durations-file=" + durationsFile);
+    for (Task task : runner.tasks(new TaskDef[] {taskDef("jupiter.samples.SlowSetupTests")})) {
+      task.execute(eventHandler, new Logger[] {logger});
+    }
+    runner.done();
+
+    DurationStore store = new DurationStore(durationsFile);
+    assertThat(
+        store.durationNanos("jupiter.samples.SlowSetupTests").getAsLong()
+            >= TimeUnit.MILLISECONDS.toNanos(100),
+        equalTo(true));
+  }
+
+  @Test
+  public void shouldNotRecordDurationsOfFilteredRuns() {
+
+    String durationsFile = new File(temporaryFolder.getRoot(), "durations").getPath();
+
+    JupiterRunner runner =
+        newRunner(
+            "--durations-file=" + durationsFile,
+            "--tests=jupiter\\.samples\\.SimpleTests#firstTestMethod\\(\\)");
+    for (Task task : runner.tasks(new TaskDef[] {taskDef("jupiter.samples.SimpleTests")})) {
+      task.execute(eventHandler, new Logger[] {logger});
+    }
+    runner.done();
+
+    assertThat(eventHandler.byStatus(Status.Success).size(), equalTo(1));
+    DurationStore store = new DurationStore(durationsFile);
+    assertThat(store.durationNanos("jupiter.samples.SimpleTests").isPresent(), equalTo(false));
+  }
+
+  @Test
+  public void shouldProvideTagsOfAllBatchedClasses() {
+
+    JupiterRunner runner = newRunner("--batch-size=2");
+
+    Task[] tasks =
+        runner.tasks(
+            new TaskDef[] {
+              taskDef(TaskTagsTest.class.getName() + "$Annotated"),
+              taskDef("jupiter.samples.SimpleTests")
+            });
+
+    assertThat(tasks.length, equalTo(1));
+    assertThat(
+        Arrays.asList(tasks[0].tags()),
+        contains("database", "slow", "resource-lock:db", "isolated"));
+  }
+
+  @Test
+  public void shouldExecuteTestsConcurrentlyInParallelMode() {
+
+    JupiterRunner runner =
+        newRunner(
+            "--parallel",
+            "-Djunit.jupiter.execution.parallel.config.strategy=fixed",
+            "-Djunit.jupiter.execution.parallel.config.fixed.parallelism=2");
+
+    for (Task task : runner.tasks(new TaskDef[] {taskDef("jupiter.samples.ParallelTests")})) {
+      task.execute(eventHandler, new Logger[] {logger});
+    }
+    runner.done();
+
+    assertThat(eventHandler.byStatus(Status.Success), hasSize(2));
+
+    List<String> output =
+        logger.all().stream()
+            .filter(entry -> entry.endsWith(" started") || entry.endsWith(" finished"))
+            .filter(entry -> entry.contains("first") || entry.contains("second"))
+            .filter(entry -> !entry.contains("Test "))
+            .collect(Collectors.toList());
+
+    // the output of each test is logged as one block once the test has finished
+    assertThat(output, hasSize(4));
+    assertThat(output.get(0).replace("started", "finished"), equalTo(output.get(1)));
+    assertThat(output.get(2).replace("started", "finished"), equalTo(output.get(3)));
+  }
+
+  @Test
+  public void shouldReportEventsPerClassOnVirtualThreads() {
+
+    JupiterRunner runner = newRunner("--batch-size=10", "--virtual-threads");
+
+    Task[] tasks =
+        runner.tasks(
+            new TaskDef[] {
+              taskDef("jupiter.samples.SimpleTests"), taskDef("jupiter.samples.NestedTests")
+            });
+
+    assertThat(tasks.length, equalTo(1));
+
+    tasks[0].execute(eventHandler, new Logger[] {logger});
+    runner.done();
+
+    Set<String> names =
+        eventHandler.byStatus(Status.Success).stream()
+            .map(Event::fullyQualifiedName)
+            .collect(Collectors.toSet());
+
+    assertThat(
+        names, containsInAnyOrder("jupiter.samples.SimpleTests", "jupiter.samples.NestedTests"));
+    assertThat(eventHandler.byStatus(Status.Error), hasSize(0));
+  }
+
+  @Test
+  public void shouldLimitTestClassesExecutedOnVirtualThreads() {
+
+    String sample = ConcurrencyLimitTests.class.getName();
+    JupiterRunner runner = newRunner("--batch-size=10", "--virtual-threads=1");
+
+    Task[] tasks =
+        runner.tasks(
+            new TaskDef[] {
+              taskDef(sample + "$First"), taskDef(sample + "$Second"), taskDef(sample + "$Third")
+            });
+
+    tasks[0].execute(eventHandler, new Logger[] {logger});
+    runner.done();
+
+    assertThat(eventHandler.byStatus(Status.Success), hasSize(3));
+    assertThat(ConcurrencyLimitTests.maxRunning.get(), equalTo(1));
+  }
+
+  @Test
+  public void shouldOrderPreviouslyFailedTasksFirst() {
+
+    String failuresFile = new File(temporaryFolder.getRoot(), "failures").getPath();
+
+    JupiterRunner runner = newRunner("--failures-file=" + failuresFile);
+    for (Task task :
+        runner.tasks(
+            new TaskDef[] {
+              taskDef("jupiter.samples.SimpleTests"), taskDef("jupiter.samples.FailingTests")
+            })) {
+      task.execute(eventHandler, new Logger[] {logger});
+    }
+    runner.done();
+
+    runner = newRunner("--failures-file=" + failuresFile);
+    Task[] tasks =
+        runner.tasks(
+            new TaskDef[] {
+              taskDef("jupiter.samples.SimpleTests"),
+              taskDef("jupiter.samples.NestedTests"),
+              taskDef("jupiter.samples.FailingTests")
+            });
+
+    assertThat(
+        Arrays.stream(tasks).map(task -> task.taskDef().fullyQualifiedName()).toArray(),
+        equalTo(
+            new Object[] {
+              "jupiter.samples.FailingTests",
+              "jupiter.samples.SimpleTests",
+              "jupiter.samples.NestedTests"
+            }));
+  }
+
+  @Test
+  public void shouldOrderChangedTasksFirstUntilExecuted() {
+
+    String changedFile = new File(temporaryFolder.getRoot(), "changed").getPath();
+    new ChangedClassStore(changedFile)
+        .add(Arrays.asList("jupiter.samples.NestedTests", "jupiter.samples.FailingTests"));
+
+    JupiterRunner runner = newRunner("--changed-classes-file=" + changedFile);
+    Task[] tasks =
+        runner.tasks(
+            new TaskDef[] {
+              taskDef("jupiter.samples.SimpleTests"), taskDef("jupiter.samples.NestedTests")
+            });
+
+    assertThat(
+        Arrays.stream(tasks).map(task -> task.taskDef().fullyQualifiedName()).toArray(),
+        equalTo(new Object[] {"jupiter.samples.NestedTests", "jupiter.samples.SimpleTests"}));
+
+    for (Task task : tasks) {
+      task.execute(eventHandler, new Logger[] {logger});
+    }
+    runner.done();
+
+    ChangedClassStore store = new ChangedClassStore(changedFile);
+    assertThat(store.hasChanged("jupiter.samples.NestedTests"), equalTo(false));
+    assertThat(store.hasChanged("jupiter.samples.FailingTests"), equalTo(true));
+  }
+
+  @Test
+  public void shouldRerunPreviouslyFailedTestsOnly() {
+
+    String failuresFile = new File(temporaryFolder.getRoot(), "failures").getPath();
+    TaskDef[] taskDefs =
+        new TaskDef[] {
+          taskDef("jupiter.samples.SimpleTests"), taskDef("jupiter.samples.FailingTests")
+        };
+
+    JupiterRunner runner = newRunner("--failures-file=" + failuresFile);
+    for (Task task : runner.tasks(taskDefs)) {
+      task.execute(eventHandler, new Logger[] {logger});
+    }
+    runner.done();
+    eventHandler.all().clear();
+
+    runner = newRunner("--failures-file=" + failuresFile, "--rerun-failed");
+    Task[] tasks = runner.tasks(taskDefs);
+    for (Task task : tasks) {
+      task.execute(eventHandler, new Logger[] {logger});
+    }
+    runner.done();
+
+    assertThat(tasks.length, equalTo(1));
+    assertThat(
+        eventHandler.all().stream()
+            .map(event -> event.status() + " " + event.selector())
+            .collect(Collectors.toList()),
+        contains("Failure TestSelector(firstTestMethod())"));
+  }
+
+  @Test
+  public void shouldSkipRemainingTestsAfterFirstFailure() {
+
+    JupiterRunner runner = newRunner("--fail-fast");
+    for (Task task :
+        runner.tasks(
+            new TaskDef[] {
+              taskDef("jupiter.samples.FailingTests"), taskDef("jupiter.samples.SimpleTests")
+            })) {
+      task.execute(eventHandler, new Logger[] {logger});
+    }
+    runner.done();
+
+    assertThat(
+        eventHandler.all().stream()
+            .map(event -> event.status() + " " + event.fullyQualifiedName())
+            .collect(Collectors.toList()),
+        containsInAnyOrder(
+            "Failure jupiter.samples.FailingTests",
+            "Skipped jupiter.samples.FailingTests",
+            "Skipped jupiter.samples.SimpleTests"));
+  }
+
+  @Test
+  public void shouldExecuteSelectedTestsOnly() {
+
+    Selector[] selectors =
+        new Selector[] {
+          new TestSelector("testWithParameter(TestInfo)"),
+        };
+
+    JupiterRunner runner = newRunner();
+    for (Task task :
+        runner.tasks(
+            new TaskDef[] {
+              new TaskDef(
+                  "jupiter.samples.SimpleTests", new JupiterTestFingerprint(), false, selectors),
+              new TaskDef(
+                  "jupiter.samples.NestedTests",
+                  new JupiterTestFingerprint(),
+                  false,
+                  new Selector[] {new NestedTestSelector("$Second", "testOfSecondNestedClass()")})
+            })) {
+      task.execute(eventHandler, new Logger[] {logger});
+    }
+    runner.done();
+
+    assertThat(
+        eventHandler.byStatus(Status.Success).stream()
+            .map(event -> event.selector().toString())
+            .collect(Collectors.toList()),
+        containsInAnyOrder(
+            new TestSelector("testWithParameter(TestInfo)").toString(),
+            new NestedTestSelector("$Second", "testOfSecondNestedClass()").toString()));
+  }
+
+  @Test
+  public void shouldExecuteSingleInvocationByUniqueId() {
+
+    String uniqueId =
+        "[engine:junit-jupiter]/[class:jupiter.samples.ParameterizedTests]"
+            + "/[test-template:testWithStringParameter(java.lang.String)]"
+            + "/[test-template-invocation:#2]";
+
+    JupiterRunner runner = newRunner();
+    for (Task task :
+        runner.tasks(
+            new TaskDef[] {
+              new TaskDef(
+                  "jupiter.samples.ParameterizedTests",
+                  new JupiterTestFingerprint(),
+                  false,
+                  new Selector[] {new UniqueIdSelector(uniqueId)})
+            })) {
+      task.execute(eventHandler, new Logger[] {logger});
+    }
+    runner.done();
+
+    assertThat(
+        eventHandler.byStatus(Status.Success).stream()
+            .map(event -> event.selector().toString())
+            .collect(Collectors.toList()),
+        contains(new TestSelector("testWithStringParameter(String):[2] \"World\"").toString()));
+  }
+
+  private static List<String> names(List<TaskDef> taskDefs) {
+
+    return taskDefs.stream().map(TaskDef::fullyQualifiedName).collect(Collectors.toList());
+  }
+
+  private JupiterRunner newRunner(String... args) {
+
+    return new JupiterRunner(args, new String[0], getClass().getClassLoader(), streamPair);
+  }
+
+  private TaskDef taskDef(String testClassName) {
+
+    Selector[] selectors = new Selector[] {new SuiteSelector()};
+    return new TaskDef(testClassName, new JupiterTestFingerprint(), false, selectors);
+  }
+
+  /** Counts launcher session lifecycle callbacks. */
+  public static class CountingSessionListener implements LauncherSessionListener {
+
+    static final AtomicInteger opened = new AtomicInteger();
+    static final AtomicInteger closed = new AtomicInteger();
+
+    @Override
+    public void launcherSessionOpened(LauncherSession session) {
+
+      opened.incrementAndGet();
+    }
+
+    @Override
+    public void launcherSessionClosed(LauncherSession session) {
+
+      closed.incrementAndGet();
+    }
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder;
+import org.junit.rules.TemporaryFolder;
+
+public class ParallelExecutionTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void shouldExecuteConcurrentlyByDefault() {
+
+    ConfigurationParameters parameters = configure(LauncherDiscoveryRequestBuilder.request());
+
+    assertThat(parameters.get(ParallelExecution.ENABLED).orElse(null), equalTo("true"));
+    assertThat(parameters.get(ParallelExecution.MODE_DEFAULT).orElse(null), equalTo("concurrent"));
+    assertThat(
+        parameters.get(ParallelExecution.MODE_CLASSES_DEFAULT).orElse(null), equalTo("concurrent"));
+  }
+
+  @Test
+  public void shouldKeepExplicitConfigurationParameters() {
+
+    ConfigurationParameters parameters =
+        configure(
+            LauncherDiscoveryRequestBuilder.request()
+                .configurationParameter(ParallelExecution.MODE_DEFAULT, "same_thread"));
+
+    assertThat(parameters.get(ParallelExecution.MODE_DEFAULT).orElse(null), equalTo("same_thread"));
+    assertThat(
+        parameters.get(ParallelExecution.MODE_CLASSES_DEFAULT).orElse(null), equalTo("concurrent"));
+  }
+
+  @Test
+  public void shouldKeepParametersOfPropertiesFile() throws Exception {
+
+    File directory = temporaryFolder.newFolder();
+    Files.write(
+        new File(directory, "junit-platform.properties").toPath(),
+        Arrays.asList(ParallelExecution.MODE_CLASSES_DEFAULT + "=same_thread"),
+        StandardCharsets.UTF_8);
+
+    Thread thread = Thread.currentThread();
+    ClassLoader previous = thread.getContextClassLoader();
+    try (URLClassLoader loader =
+        new URLClassLoader(new URL[] {directory.toURI().toURL()}, previous)) {
+
+      thread.setContextClassLoader(loader);
+      ConfigurationParameters parameters = configure(LauncherDiscoveryRequestBuilder.request());
+
+      assertThat(
+          parameters.get(ParallelExecution.MODE_DEFAULT).orElse(null), equalTo("concurrent"));
+      assertThat(
+          parameters.get(ParallelExecution.MODE_CLASSES_DEFAULT).orElse(null),
+          equalTo("same_thread"));
+    } finally {
+      thread.setContextClassLoader(previous);
+    }
+  }
+
+  private static ConfigurationParameters configure(LauncherDiscoveryRequestBuilder builder) {
+
+    ParallelExecution.configure(builder);
+    return builder.build().getConfigurationParameters();
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+import org.junit.Test;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.junit.jupiter.api.parallel.ResourceLock;
+
+public class TaskTagsTest {
+
+  @Test
+  public void shouldProvideNoTagsForPlainClass() {
+
+    assertThat(TaskTags.of(Plain.class), empty());
+  }
+
+  @Test
+  public void shouldProvideTagsFromAnnotations() {
+
+    assertThat(
+        TaskTags.of(Annotated.class), contains("database", "slow", "resource-lock:db", "isolated"));
+  }
+
+  @Test
+  public void shouldProvideInheritedTags() {
+
+    assertThat(
+        TaskTags.of(Inheriting.class),
+        contains("database", "slow", "resource-lock:db", "isolated"));
+  }
+
+  @Test
+  public void shouldLoadClassByTestName() {
+
+    String name = Annotated.class.getName() + "#test";
+    assertThat(
+        TaskTags.of(name, getClass().getClassLoader()),
+        contains("database", "slow", "resource-lock:db", "isolated"));
+    assertThat(TaskTags.of("does.not.Exist", getClass().getClassLoader()), empty());
+  }
+
+  static class Plain {}
+
+  @Tag("database")
+  @Tag("slow")
+  @ResourceLock("db")
+  @Isolated
+  static class Annotated {}
+
+  static class Inheriting extends Annotated {}
+}
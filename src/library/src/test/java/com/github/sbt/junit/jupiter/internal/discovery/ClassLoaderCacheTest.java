@@ -0,0 +1,173 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal.discovery;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ClassLoaderCacheTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File jar;
+  private URL[] classPath;
+
+  @Before
+  public void setUp() throws Exception {
+
+    jar = new File(temporaryFolder.getRoot(), "dependency.jar");
+    writeJar("first");
+
+    File classDirectory = temporaryFolder.newFolder("classes");
+    Files.write(new File(classDirectory, "test.txt").toPath(), new byte[0]);
+
+    classPath = new URL[] {jar.toURI().toURL(), classDirectory.toURI().toURL()};
+  }
+
+  @Test
+  public void shouldReuseClassLoaderOfUnchangedJars() throws Exception {
+
+    ClassLoaderCache cache = new ClassLoaderCache(1);
+
+    try (ClassLoaderCache.Lease first = cache.acquire(classPath, null);
+        ClassLoaderCache.Lease second = cache.acquire(classPath, null)) {
+
+      assertThat(first.classLoader(), not(sameInstance(second.classLoader())));
+      assertThat(first.classLoader().getParent(), sameInstance(second.classLoader().getParent()));
+      assertThat(second.classLoader().getResource("dependency.txt"), notNullValue());
+      assertThat(second.classLoader().getResource("test.txt"), notNullValue());
+    }
+  }
+
+  @Test
+  public void shouldKeepPrecedenceOfClassPath() throws Exception {
+
+    File classDirectory = temporaryFolder.newFolder("main-classes");
+    File resource = new File(classDirectory, "dependency.txt");
+    Files.write(resource.toPath(), "directory".getBytes(StandardCharsets.UTF_8));
+
+    URL[] classPath = {classDirectory.toURI().toURL(), jar.toURI().toURL()};
+    ClassLoaderCache cache = new ClassLoaderCache(1);
+
+    try (ClassLoaderCache.Lease first = cache.acquire(classPath, null);
+        ClassLoaderCache.Lease second = cache.acquire(classPath, null)) {
+
+      assertThat(first.classLoader().getParent(), sameInstance(second.classLoader().getParent()));
+      assertThat(
+          new File(second.classLoader().getResource("dependency.txt").toURI()), equalTo(resource));
+      assertThat(Collections.list(second.classLoader().getResources("dependency.txt")), hasSize(2));
+    }
+  }
+
+  @Test
+  public void shouldReplaceClassLoaderOfChangedJars() throws Exception {
+
+    ClassLoaderCache cache = new ClassLoaderCache(1);
+
+    ClassLoader dependencies;
+    try (ClassLoaderCache.Lease lease = cache.acquire(classPath, null)) {
+      dependencies = lease.classLoader().getParent();
+    }
+
+    writeJar("second, which is longer");
+
+    try (ClassLoaderCache.Lease lease = cache.acquire(classPath, null)) {
+      assertThat(lease.classLoader().getParent(), not(sameInstance(dependencies)));
+    }
+
+    assertThat(dependencies.getResource("dependency.txt"), nullValue());
+  }
+
+  @Test
+  public void shouldCloseReplacedClassLoaderOnlyOnceReleased() throws Exception {
+
+    ClassLoaderCache cache = new ClassLoaderCache(1);
+
+    ClassLoaderCache.Lease first = cache.acquire(classPath, null);
+    ClassLoader dependencies = first.classLoader().getParent();
+
+    writeJar("second, which is longer");
+    cache.acquire(classPath, null).close();
+
+    assertThat(dependencies.getResource("dependency.txt"), notNullValue());
+
+    first.close();
+
+    assertThat(dependencies.getResource("dependency.txt"), nullValue());
+  }
+
+  @Test
+  public void shouldCloseEvictedClassLoaders() throws Exception {
+
+    ClassLoaderCache cache = new ClassLoaderCache(1);
+
+    ClassLoader dependencies;
+    try (ClassLoaderCache.Lease lease = cache.acquire(classPath, null)) {
+      dependencies = lease.classLoader().getParent();
+    }
+
+    cache.acquire(new URL[] {classPath[1]}, null).close();
+
+    assertThat(dependencies.getResource("dependency.txt"), nullValue());
+  }
+
+  @Test
+  public void shouldCloseClassLoadersWithCache() throws Exception {
+
+    ClassLoaderCache cache = new ClassLoaderCache(1);
+
+    ClassLoader dependencies;
+    try (ClassLoaderCache.Lease lease = cache.acquire(classPath, null)) {
+      dependencies = lease.classLoader().getParent();
+    }
+
+    cache.close();
+
+    assertThat(dependencies.getResource("dependency.txt"), nullValue());
+  }
+
+  private void writeJar(String content) throws IOException {
+
+    try (OutputStream out = Files.newOutputStream(jar.toPath());
+        JarOutputStream jarOut = new JarOutputStream(out)) {
+      jarOut.putNextEntry(new JarEntry("dependency.txt"));
+      jarOut.write(content.getBytes(StandardCharsets.UTF_8));
+      jarOut.closeEntry();
+    }
+  }
+}
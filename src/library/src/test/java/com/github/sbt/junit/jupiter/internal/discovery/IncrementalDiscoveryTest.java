@@ -0,0 +1,277 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal.discovery;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+
+import java.io.IOException;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class IncrementalDiscoveryTest {
+
+  private static final List<Class<?>> CLASSES =
+      Arrays.asList(
+          DiscoveryBase.class,
+          DiscoverySub.class,
+          DiscoveryMarker.class,
+          DiscoveryAnnotated.class,
+          DiscoveryUnrelated.class);
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path classDirectory;
+  private Path cacheFile;
+  private RecordingDiscoverer discoverer;
+
+  @Before
+  public void setUp() throws Exception {
+
+    classDirectory = temporaryFolder.newFolder("classes").toPath();
+    cacheFile = temporaryFolder.getRoot().toPath().resolve("discovery.cache");
+    discoverer = new RecordingDiscoverer();
+
+    for (Class<?> type : CLASSES) {
+      copyClass(type);
+    }
+  }
+
+  @Test
+  public void shouldReadClassFileDependencies() throws Exception {
+
+    ClassFileInfo sub = ClassFileInfo.read(classFile(DiscoverySub.class));
+    ClassFileInfo annotated = ClassFileInfo.read(classFile(DiscoveryAnnotated.class));
+
+    assertThat(sub.className, equalTo(DiscoverySub.class.getName()));
+    assertThat(sub.dependencies, hasItem(DiscoveryBase.class.getName()));
+    assertThat(annotated.dependencies, hasItem(DiscoveryMarker.class.getName()));
+  }
+
+  @Test
+  public void shouldDiscoverAllWithoutCache() throws Exception {
+
+    List<String> result = newDiscovery("key").discover(discoverer);
+
+    assertThat(discoverer.discoverAllCount, is(1));
+    assertThat(result, contains(discoverer.allTests.toArray()));
+    assertThat(Files.exists(cacheFile), is(true));
+  }
+
+  @Test
+  public void shouldReplayUnchangedResults() throws Exception {
+
+    newDiscovery("key").discover(discoverer);
+    List<String> result = newDiscovery("key").discover(discoverer);
+
+    assertThat(discoverer.discoverAllCount, is(1));
+    assertThat(discoverer.discoveredClasses, is(empty()));
+    assertThat(result, contains(discoverer.allTests.toArray()));
+  }
+
+  @Test
+  public void shouldDiscoverAllIfCacheKeyChanges() throws Exception {
+
+    newDiscovery("key").discover(discoverer);
+    newDiscovery("other").discover(discoverer);
+
+    assertThat(discoverer.discoverAllCount, is(2));
+  }
+
+  @Test
+  public void shouldRediscoverChangedClassOnly() throws Exception {
+
+    newDiscovery("key").discover(discoverer);
+    touch(DiscoveryUnrelated.class);
+    List<String> result = newDiscovery("key").discover(discoverer);
+
+    assertThat(discoverer.discoverAllCount, is(1));
+    assertThat(discoverer.discoveredClasses, contains(DiscoveryUnrelated.class.getName()));
+    assertThat(result, containsInAnyOrder(discoverer.allTests.toArray()));
+  }
+
+  @Test
+  public void shouldRediscoverSubclassesOfChangedClass() throws Exception {
+
+    newDiscovery("key").discover(discoverer);
+    touch(DiscoveryBase.class);
+    newDiscovery("key").discover(discoverer);
+
+    assertThat(
+        discoverer.discoveredClasses,
+        containsInAnyOrder(DiscoveryBase.class.getName(), DiscoverySub.class.getName()));
+  }
+
+  @Test
+  public void shouldReportAffectedTopLevelClasses() throws Exception {
+
+    IncrementalDiscovery discovery = newDiscovery("key");
+    discovery.discover(discoverer);
+    assertThat(discovery.getAffectedClasses(), is(empty()));
+
+    touch(DiscoveryBase.class);
+    discovery = newDiscovery("key");
+    discovery.discover(discoverer);
+
+    assertThat(
+        discovery.getAffectedClasses(),
+        containsInAnyOrder(DiscoveryBase.class.getName(), DiscoverySub.class.getName()));
+  }
+
+  @Test
+  public void shouldRediscoverClassesUsingChangedAnnotation() throws Exception {
+
+    newDiscovery("key").discover(discoverer);
+    touch(DiscoveryMarker.class);
+    newDiscovery("key").discover(discoverer);
+
+    assertThat(
+        discoverer.discoveredClasses,
+        containsInAnyOrder(DiscoveryMarker.class.getName(), DiscoveryAnnotated.class.getName()));
+  }
+
+  @Test
+  public void shouldDropTestsOfRemovedClasses() throws Exception {
+
+    newDiscovery("key").discover(discoverer);
+    Files.delete(classDirectory.resolve(relativePath(DiscoveryUnrelated.class)));
+    List<String> result = newDiscovery("key").discover(discoverer);
+
+    assertThat(discoverer.discoveredClasses, is(empty()));
+    assertThat(result, contains(DiscoverySub.class.getName() + "#test()"));
+  }
+
+  @Test
+  public void shouldUseGivenClassFileStamps() throws Exception {
+
+    Map<Path, String> stamps = new HashMap<>();
+    for (Class<?> type : CLASSES) {
+      stamps.put(classDirectory.resolve(relativePath(type)), "1");
+    }
+
+    newDiscovery("key", stamps).discover(discoverer);
+    touch(DiscoveryBase.class);
+    stamps.put(classDirectory.resolve(relativePath(DiscoveryUnrelated.class)), "2");
+    List<String> result = newDiscovery("key", stamps).discover(discoverer);
+
+    assertThat(discoverer.discoverAllCount, is(1));
+    assertThat(discoverer.discoveredClasses, contains(DiscoveryUnrelated.class.getName()));
+    assertThat(result, containsInAnyOrder(discoverer.allTests.toArray()));
+  }
+
+  @Test
+  public void shouldGroupByTopLevelClass() {
+
+    assertThat(IncrementalDiscovery.group("a.B"), equalTo("a.B"));
+    assertThat(IncrementalDiscovery.group("a.B$C"), equalTo("a.B"));
+    assertThat(IncrementalDiscovery.group("a.B$C#test(java.lang.String)"), equalTo("a.B"));
+  }
+
+  private IncrementalDiscovery newDiscovery(String key) {
+
+    return new IncrementalDiscovery(classDirectory, cacheFile, key);
+  }
+
+  private IncrementalDiscovery newDiscovery(String key, Map<Path, String> stamps) {
+
+    return new IncrementalDiscovery(classDirectory, cacheFile, key, stamps);
+  }
+
+  private void copyClass(Class<?> type) throws Exception {
+
+    Path target = classDirectory.resolve(relativePath(type));
+    Files.createDirectories(target.getParent());
+    Files.copy(classFile(type), target);
+  }
+
+  private void touch(Class<?> type) throws IOException {
+
+    Path file = classDirectory.resolve(relativePath(type));
+    FileTime lastModified = Files.getLastModifiedTime(file);
+    Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified.toMillis() + 10_000));
+  }
+
+  private static Path classFile(Class<?> type) throws Exception {
+
+    return Paths.get(type.getResource(type.getSimpleName() + ".class").toURI());
+  }
+
+  private static String relativePath(Class<?> type) {
+
+    return type.getName().replace('.', '/') + ".class";
+  }
+
+  /** Pretends that DiscoverySub and DiscoveryUnrelated contain tests. */
+  private static class RecordingDiscoverer implements IncrementalDiscovery.Discoverer {
+
+    final List<String> allTests =
+        Arrays.asList(DiscoverySub.class.getName() + "#test()", DiscoveryUnrelated.class.getName());
+
+    int discoverAllCount;
+    final List<String> discoveredClasses = new ArrayList<>();
+
+    @Override
+    public List<String> discoverAll() {
+
+      discoverAllCount++;
+      return allTests;
+    }
+
+    @Override
+    public List<String> discoverClasses(Set<String> classNames) {
+
+      discoveredClasses.addAll(classNames);
+      return allTests.stream()
+          .filter(test -> classNames.contains(IncrementalDiscovery.group(test)))
+          .collect(Collectors.toList());
+    }
+  }
+}
+
+class DiscoveryBase {}
+
+class DiscoverySub extends DiscoveryBase {}
+
+@Retention(RetentionPolicy.RUNTIME)
+@interface DiscoveryMarker {}
+
+@DiscoveryMarker
+class DiscoveryAnnotated {}
+
+class DiscoveryUnrelated {}
@@ -19,6 +19,7 @@
 package com.github.sbt.junit.jupiter.internal.event;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.endsWith;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
@@ -26,6 +27,7 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.instanceOf;
 
+import com.github.sbt.junit.jupiter.api.UniqueIdSelector;
 import com.github.sbt.junit.jupiter.internal.event.DispatcherSampleTests.CustomDisplayNameParameterizedTests;
 import com.github.sbt.junit.jupiter.internal.event.DispatcherSampleTests.DurationTests;
 import com.github.sbt.junit.jupiter.internal.event.DispatcherSampleTests.DynamicTests;
@@ -64,6 +66,17 @@ public class DispatcherTest {
     assertThat(result.get(0).duration(), greaterThan(0L));
   }
 
+  @Test
+  public void shouldMeasureSubMillisecondDuration() {
+
+    testRunner.execute(SingleParamTests.class);
+
+    List<Event> result = testRunner.eventHandler().byStatus(Status.Success);
+
+    assertThat(result, hasSize(1));
+    assertThat(((Dispatcher.DispatchEvent) result.get(0)).durationNanos(), greaterThan(0L));
+  }
+
   @Test
   public void shouldReportSimpleMethodParameterType() {
 
@@ -159,6 +172,21 @@ public class DispatcherTest {
     }
   }
 
+  @Test
+  public void shouldRerunDynamicTestsByUniqueId() {
+
+    testRunner.execute(DynamicTests.class);
+
+    List<Event> result = testRunner.eventHandler().byStatus(Status.Success);
+
+    assertThat(result, hasSize(3));
+    for (Event event : result) {
+      Selector selector = ((Dispatcher.DispatchEvent) event).rerunSelector();
+      assertThat(selector, instanceOf(UniqueIdSelector.class));
+      assertThat(((UniqueIdSelector) selector).uniqueId(), containsString("[dynamic-test:#"));
+    }
+  }
+
   @Test
   public void shouldReportNestedTestsCorrectly() {
 
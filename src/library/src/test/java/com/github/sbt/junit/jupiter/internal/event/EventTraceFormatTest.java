@@ -0,0 +1,119 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal.event;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThrows;
+
+import com.github.sbt.junit.jupiter.api.JupiterTestFingerprint;
+import org.junit.Test;
+import sbt.testing.Event;
+import sbt.testing.Fingerprint;
+import sbt.testing.NestedTestSelector;
+import sbt.testing.OptionalThrowable;
+import sbt.testing.Selector;
+import sbt.testing.Status;
+
+public class EventTraceFormatTest {
+
+  @Test
+  public void shouldFormatJsonLine() {
+
+    Event event =
+        new TestEvent(
+            new NestedTestSelector("a.B$C", "test(\"x\")"),
+            new OptionalThrowable(new AssertionError()));
+
+    String expected =
+        "{\"fullyQualifiedName\":\"a.B\","
+            + "\"selector\":\"NestedTestSelector\","
+            + "\"testName\":\"test(\\\"x\\\")\","
+            + "\"nestedSuiteId\":\"a.B$C\","
+            + "\"status\":\"Failure\","
+            + "\"durationNanos\":2000000,"
+            + "\"thread\":\""
+            + Thread.currentThread().getName()
+            + "\","
+            + "\"throwable\":\"java.lang.AssertionError\"}";
+
+    assertThat(EventTraceFormat.JSONL.format(event), equalTo(expected));
+  }
+
+  @Test
+  public void shouldParseFormatNames() {
+
+    assertThat(EventTraceFormat.of("text"), is(EventTraceFormat.TEXT));
+    assertThat(EventTraceFormat.of("JSONL"), is(EventTraceFormat.JSONL));
+
+    IllegalArgumentException ex =
+        assertThrows(IllegalArgumentException.class, () -> EventTraceFormat.of("xml"));
+    assertThat(ex.getMessage(), containsString("'xml'"));
+  }
+
+  private static class TestEvent implements Event {
+
+    final Selector selector;
+    final OptionalThrowable throwable;
+
+    TestEvent(Selector selector, OptionalThrowable throwable) {
+
+      this.selector = selector;
+      this.throwable = throwable;
+    }
+
+    @Override
+    public String fullyQualifiedName() {
+
+      return "a.B";
+    }
+
+    @Override
+    public Fingerprint fingerprint() {
+
+      return new JupiterTestFingerprint();
+    }
+
+    @Override
+    public Selector selector() {
+
+      return selector;
+    }
+
+    @Override
+    public Status status() {
+
+      return Status.Failure;
+    }
+
+    @Override
+    public OptionalThrowable throwable() {
+
+      return throwable;
+    }
+
+    @Override
+    public long duration() {
+
+      return 2;
+    }
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal.event;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class EventTraceWriterTest {
+
+  @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Test
+  public void shouldAppendLinesWhenClosed() throws Exception {
+
+    File file = new File(temporaryFolder.getRoot(), "trace.log");
+
+    EventTraceWriter writer = new EventTraceWriter(file.getPath());
+    writer.write("first");
+    writer.write("second");
+    writer.close();
+
+    writer = new EventTraceWriter(file.getPath());
+    writer.write("third");
+    writer.close();
+
+    assertThat(
+        Files.readAllLines(file.toPath(), StandardCharsets.UTF_8),
+        contains("first", "second", "third"));
+  }
+}
@@ -22,11 +22,16 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.nullValue;
 
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import org.junit.Test;
 import org.junit.experimental.runners.Enclosed;
 import org.junit.platform.engine.TestDescriptor;
+import org.junit.platform.engine.TestSource;
 import org.junit.platform.engine.UniqueId;
 import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
+import org.junit.platform.engine.support.descriptor.ClassSource;
 import org.junit.platform.launcher.TestIdentifier;
 import org.junit.runner.RunWith;
 
@@ -44,6 +49,12 @@ public class TaskNameTest {
       TaskName.nestedSuiteId("jupiter.SampleTests", "SomeOtherTest$Nested");
     }
 
+    @Test(expected = RuntimeException.class)
+    public void shouldThrowExceptionIfSuiteIsOnlyPrefix() {
+
+      TaskName.nestedSuiteId("jupiter.SampleTests", "jupiter.SampleTestsExtra");
+    }
+
     @Test
     public void shouldReturnNullIfEqualsTestSuite() {
 
@@ -65,6 +76,41 @@ public class TaskNameTest {
     }
   }
 
+  public static class TestSuiteOfTest {
+
+    private final Set<String> testSuites =
+        new LinkedHashSet<>(Arrays.asList("jupiter.FooTest", "jupiter.FooTestBar"));
+
+    @Test
+    public void shouldNotMatchTestSuiteByPrefix() {
+
+      assertThat(testSuiteOf("jupiter.FooTestBar"), equalTo("jupiter.FooTestBar"));
+      assertThat(testSuiteOf("jupiter.FooTestBar$Nested"), equalTo("jupiter.FooTestBar"));
+    }
+
+    @Test
+    public void shouldMatchEnclosingTestSuite() {
+
+      assertThat(testSuiteOf("jupiter.FooTest"), equalTo("jupiter.FooTest"));
+      assertThat(testSuiteOf("jupiter.FooTest$Nested$Inner"), equalTo("jupiter.FooTest"));
+    }
+
+    @Test
+    public void shouldFallBackToFirstTestSuite() {
+
+      assertThat(testSuiteOf("jupiter.Other"), equalTo("jupiter.FooTest"));
+    }
+
+    private String testSuiteOf(String className) {
+
+      UniqueId id = UniqueId.root("class", className);
+      DummyTestDescriptor descriptor =
+          new DummyTestDescriptor(id, className, ClassSource.from(className));
+
+      return TaskName.testSuiteOf(testSuites, TestIdentifier.from(descriptor));
+    }
+  }
+
   public static class TestNameTest {
 
     @Test
@@ -139,6 +185,10 @@ public class TaskNameTest {
       super(uniqueId, displayName);
     }
 
+    DummyTestDescriptor(UniqueId uniqueId, String displayName, TestSource source) {
+      super(uniqueId, displayName, source);
+    }
+
     @Override
     public Type getType() {
       return Type.CONTAINER_AND_TEST;
@@ -0,0 +1,159 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal.event;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+
+import com.github.sbt.junit.jupiter.api.JupiterTestFingerprint;
+import com.github.sbt.junit.jupiter.api.UniqueIdSelector;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.junit.platform.engine.DiscoverySelector;
+import sbt.testing.NestedSuiteSelector;
+import sbt.testing.NestedTestSelector;
+import sbt.testing.Selector;
+import sbt.testing.SuiteSelector;
+import sbt.testing.TaskDef;
+import sbt.testing.TestSelector;
+
+public class TaskSelectorsTest {
+
+  private static final String INVOCATION =
+      "[engine:junit-jupiter]/[class:jupiter.samples.ParameterizedTests]"
+          + "/[test-template:testWithStringParameter(java.lang.String)]"
+          + "/[test-template-invocation:#2]";
+
+  @Test
+  public void shouldSelectClassBySuiteSelector() {
+
+    assertThat(
+        selectors("jupiter.samples.SimpleTests", new SuiteSelector()),
+        contains("ClassSelector [className = 'jupiter.samples.SimpleTests', classLoader = null]"));
+  }
+
+  @Test
+  public void shouldSelectClassWithoutSelectors() {
+
+    assertThat(
+        selectors("jupiter.samples.SimpleTests"),
+        contains("ClassSelector [className = 'jupiter.samples.SimpleTests', classLoader = null]"));
+  }
+
+  @Test
+  public void shouldSelectClassIfAnySuiteSelectorIsPresent() {
+
+    assertThat(
+        selectors(
+            "jupiter.samples.SimpleTests",
+            new TestSelector("firstTestMethod()"),
+            new SuiteSelector()),
+        contains("ClassSelector [className = 'jupiter.samples.SimpleTests', classLoader = null]"));
+  }
+
+  @Test
+  public void shouldSelectMethodByTestSelector() {
+
+    assertThat(
+        selectors("jupiter.samples.SimpleTests", new TestSelector("testWithParameter(TestInfo)")),
+        contains(
+            "MethodSelector [className = 'jupiter.samples.SimpleTests',"
+                + " methodName = 'testWithParameter',"
+                + " parameterTypes = 'org.junit.jupiter.api.TestInfo', classLoader = null]"));
+  }
+
+  @Test
+  public void shouldIgnoreInvocationOfTestSelector() {
+
+    assertThat(
+        selectors(
+            "jupiter.samples.ParameterizedTests",
+            new TestSelector("testWithStringParameter(String):[1] Hello"),
+            new TestSelector("testWithStringParameter(String):[2] World")),
+        contains(
+            "MethodSelector [className = 'jupiter.samples.ParameterizedTests',"
+                + " methodName = 'testWithStringParameter',"
+                + " parameterTypes = 'java.lang.String', classLoader = null]"));
+  }
+
+  @Test
+  public void shouldSelectNestedMethodByNestedTestSelector() {
+
+    assertThat(
+        selectors(
+            "jupiter.samples.NestedTests",
+            new NestedTestSelector("$First", "testOfFirstNestedClass()")),
+        contains(
+            "NestedMethodSelector [enclosingClassNames = [jupiter.samples.NestedTests],"
+                + " nestedClassName = 'jupiter.samples.NestedTests$First',"
+                + " methodName = 'testOfFirstNestedClass', parameterTypes = '',"
+                + " classLoader = null]"));
+  }
+
+  @Test
+  public void shouldSelectNestedClassByNestedSuiteSelector() {
+
+    assertThat(
+        selectors("jupiter.samples.NestedTests", new NestedSuiteSelector("$Second")),
+        contains(
+            "NestedClassSelector [enclosingClassNames = [jupiter.samples.NestedTests],"
+                + " nestedClassName = 'jupiter.samples.NestedTests$Second', classLoader = null]"));
+  }
+
+  @Test
+  public void shouldSelectUniqueIdByUniqueIdSelector() {
+
+    assertThat(
+        selectors("jupiter.samples.ParameterizedTests", new UniqueIdSelector(INVOCATION)),
+        contains("UniqueIdSelector [uniqueId = " + INVOCATION + "]"));
+  }
+
+  @Test
+  public void shouldSelectUniqueIdByTestSelectorWithUniqueId() {
+
+    assertThat(
+        selectors("jupiter.samples.ParameterizedTests", new TestSelector(INVOCATION)),
+        contains("UniqueIdSelector [uniqueId = " + INVOCATION + "]"));
+  }
+
+  @Test
+  public void shouldSelectClassIfUniqueIdIsMalformed() {
+
+    assertThat(
+        selectors("jupiter.samples.SimpleTests", new UniqueIdSelector("[engine:junit-jupiter")),
+        contains("ClassSelector [className = 'jupiter.samples.SimpleTests', classLoader = null]"));
+  }
+
+  @Test
+  public void shouldSelectClassIfTestCannotBeResolved() {
+
+    assertThat(
+        selectors("jupiter.samples.SimpleTests", new TestSelector("missingTestMethod()")),
+        contains("ClassSelector [className = 'jupiter.samples.SimpleTests', classLoader = null]"));
+  }
+
+  private List<String> selectors(String testSuite, Selector... selectors) {
+
+    TaskDef taskDef = new TaskDef(testSuite, new JupiterTestFingerprint(), false, selectors);
+    List<DiscoverySelector> result = TaskSelectors.of(taskDef, getClass().getClassLoader());
+
+    return result.stream().map(Object::toString).collect(Collectors.toList());
+  }
+}
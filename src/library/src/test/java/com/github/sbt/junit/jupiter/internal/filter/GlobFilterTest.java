@@ -26,7 +26,9 @@ import com.github.sbt.junit.jupiter.internal.event.Dispatcher;
 import java.util.HashSet;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.junit.platform.engine.TestDescriptor;
 import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
@@ -54,6 +56,46 @@ public class GlobFilterTest {
     assertThat(testName, filter.findMatchingPattern(testName).isPresent(), is(false));
   }
 
+  @Test
+  public void shouldMatchAnyOfManyPatterns() {
+
+    GlobFilter filter = newGlobFilter("basic.FooTest", "*.BarTest*", "other.*Test.test*");
+
+    assertThat(filter.findMatchingPattern("basic.FooTest").isPresent(), is(true));
+    assertThat(filter.findMatchingPattern("basic.BarTest.test()").isPresent(), is(true));
+    assertThat(filter.findMatchingPattern("other.BazTest.testBaz()").isPresent(), is(true));
+    assertThat(filter.findMatchingPattern("basic.FooTest.test()").isPresent(), is(false));
+    assertThat(filter.findMatchingPattern("other.BazTest.shouldBaz()").isPresent(), is(false));
+  }
+
+  @Test
+  public void shouldReportMatchingGlobPattern() {
+
+    GlobFilter filter = newGlobFilter("basic.FooTest.test(int)", "other.*");
+
+    assertThat(
+        filter.findMatchingPattern("basic.FooTest.test(int)").get(), is("basic.FooTest.test(int)"));
+    assertThat(filter.findMatchingPattern("other.BazTest").get(), is("other.*"));
+    assertThat(filter.findMatchingPattern("basic.FooTest.test(in)").isPresent(), is(false));
+    assertThat(filter.findMatchingPattern("basic$FooTest.test(int)").isPresent(), is(false));
+  }
+
+  @Test
+  public void shouldDeriveTestNameFromParent() {
+
+    UniqueId classId = UniqueId.forEngine("junit-jupiter").append("class", "basic.FooTest");
+    UniqueId methodId = classId.append("method", "test()");
+
+    TestDescriptor classDescriptor = new DummyTestDescriptor(classId);
+    TestDescriptor methodDescriptor = new DummyTestDescriptor(methodId);
+    classDescriptor.addChild(methodDescriptor);
+
+    GlobFilter filter = newGlobFilter("*");
+
+    assertThat(filter.toTestName(methodDescriptor), is("basic.FooTest.test()"));
+    assertThat(filter.toTestName(classDescriptor), is("basic.FooTest"));
+  }
+
   @Test
   @Ignore
   public void shouldSkipEngineWhenConvertingUniqueIds() {
@@ -72,4 +114,18 @@ public class GlobFilterTest {
 
     return new GlobFilter(new HashSet<>(asList(patterns)), dispatcher);
   }
+
+  private static class DummyTestDescriptor extends AbstractTestDescriptor {
+
+    DummyTestDescriptor(UniqueId uniqueId) {
+
+      super(uniqueId, uniqueId.getLastSegment().getValue());
+    }
+
+    @Override
+    public Type getType() {
+
+      return Type.CONTAINER_AND_TEST;
+    }
+  }
 }
@@ -0,0 +1,91 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal.filter;
+
+import static com.github.sbt.junit.jupiter.internal.filter.PatternTrie.ANY;
+import static com.github.sbt.junit.jupiter.internal.filter.PatternTrie.STAR;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import org.junit.Test;
+
+public class PatternTrieTest {
+
+  @Test
+  public void shouldMatchConcatenatedParts() {
+
+    PatternTrie trie = new PatternTrie();
+    trie.add("a", PatternTrie.globTokens("foo.Bar#baz*"));
+    trie.add("b", PatternTrie.globTokens("*#qux()"));
+
+    assertThat(trie.find("foo.Bar", "#", "baz", "(", ")"), is("a"));
+    assertThat(trie.find("foo.Other", "#", "qux", "(", ")"), is("b"));
+    assertThat(trie.find("foo.Other", "#", "qux", "(int", ")"), is(nullValue()));
+    assertThat(trie.find("foo.Bar"), is(nullValue()));
+  }
+
+  @Test
+  public void shouldReportFirstAddedPattern() {
+
+    PatternTrie trie = new PatternTrie();
+    trie.add("second", PatternTrie.globTokens("*Test"));
+    trie.add("first", PatternTrie.globTokens("Foo*"));
+
+    assertThat(trie.find("FooTest"), is("second"));
+    assertThat(trie.find("FooSpec"), is("first"));
+  }
+
+  @Test
+  public void wildcardsShouldNotMatchLineTerminators() {
+
+    PatternTrie trie = new PatternTrie();
+    trie.add("star", PatternTrie.globTokens("a*b"));
+    trie.add("any", new int[] {'c', ANY, 'd'});
+
+    assertThat(trie.find("a\nb"), is(nullValue()));
+    assertThat(trie.find("a b"), is(nullValue()));
+    assertThat(trie.find("c\nd"), is(nullValue()));
+    assertThat(trie.find("axyb"), is("star"));
+    assertThat(trie.find("cxd"), is("any"));
+  }
+
+  @Test
+  public void shouldTokenizeSimpleRegularExpressions() {
+
+    assertThat(PatternTrie.regexTokens("a.b.*"), is(new int[] {'a', ANY, 'b', STAR}));
+    assertThat(PatternTrie.regexTokens("a\\.\\(\\)"), is(new int[] {'a', '.', '(', ')'}));
+    assertThat(PatternTrie.regexTokens("\\Qa.*\\Eb"), is(new int[] {'a', '.', '*', 'b'}));
+    assertThat(PatternTrie.regexTokens("\\Qa.*"), is(new int[] {'a', '.', '*'}));
+  }
+
+  @Test
+  public void shouldRejectRealRegularExpressions() {
+
+    assertThat(PatternTrie.regexTokens("a|b"), is(nullValue()));
+    assertThat(PatternTrie.regexTokens("ab+"), is(nullValue()));
+    assertThat(PatternTrie.regexTokens("a.*?"), is(nullValue()));
+    assertThat(PatternTrie.regexTokens("a.{2}"), is(nullValue()));
+    assertThat(PatternTrie.regexTokens("\\d"), is(nullValue()));
+    assertThat(PatternTrie.regexTokens("(?i)a"), is(nullValue()));
+    assertThat(PatternTrie.regexTokens("[ab]"), is(nullValue()));
+    assertThat(PatternTrie.regexTokens("\\Qa\\E*"), is(nullValue()));
+    assertThat(PatternTrie.regexTokens("a\\"), is(nullValue()));
+  }
+}
@@ -69,6 +69,66 @@ public class TestFilterTest {
     assertThat(testName, filter.findMatchingResult(testName).included(), is(false));
   }
 
+  @Test
+  public void testFindMatchingPatternOfEachKind() {
+
+    TestFilter filter =
+        newTestFilter("FooTest#testFoo", "basic.BarTest#testBar", "basic.Baz.*", "(?i)basic.qux.*");
+
+    assertThat(filter.findMatchingPattern("FooTest#testFoo").get(), is("FooTest#testFoo"));
+    assertThat(
+        filter.findMatchingPattern("basic$BarTest#testBar").get(), is("basic.BarTest#testBar"));
+    assertThat(filter.findMatchingPattern("basic.BazTest#testBaz").get(), is("basic.Baz.*"));
+    assertThat(filter.findMatchingPattern("basic.QuxTest#testQux").get(), is("(?i)basic.qux.*"));
+
+    assertThat(filter.findMatchingPattern("FooTest#testFoo2").isPresent(), is(false));
+    assertThat(filter.findMatchingPattern("basic.BarTest#testBaz").isPresent(), is(false));
+    assertThat(filter.findMatchingPattern("other.BazTest#testBaz").isPresent(), is(false));
+  }
+
+  @Test
+  public void testFindMatchingPatternOfTestNameParts() {
+
+    TestFilter filter =
+        newTestFilter(
+            "basic\\.FooTest#testFoo\\(\\)",
+            "basic.BarTest#testBar.*",
+            "\\Qbasic.BazTest#testBaz(int)\\E",
+            "basic.Qux(Test|Spec)#.*");
+
+    assertThat(
+        filter.findMatchingPattern("basic.FooTest", "#", "testFoo", "(", "", ")").get(),
+        is("basic\\.FooTest#testFoo\\(\\)"));
+    assertThat(
+        filter.findMatchingPattern("basic.BarTest", "#", "testBar", "(", "int", ")").get(),
+        is("basic.BarTest#testBar.*"));
+    assertThat(
+        filter.findMatchingPattern("basic.BazTest", "#", "testBaz", "(", "int", ")").get(),
+        is("\\Qbasic.BazTest#testBaz(int)\\E"));
+    assertThat(
+        filter.findMatchingPattern("basic.QuxSpec", "#", "testQux", "(", "", ")").get(),
+        is("basic.Qux(Test|Spec)#.*"));
+
+    assertThat(
+        filter.findMatchingPattern("basic.FooTest", "#", "testFoo", "(", "int", ")").isPresent(),
+        is(false));
+    assertThat(
+        filter.findMatchingPattern("basic.BazTest", "#", "testBaz", "(", "", ")").isPresent(),
+        is(false));
+  }
+
+  @Test
+  public void testFindMatchingPatternWithIndependentRegularExpressions() {
+
+    TestFilter filter =
+        newTestFilter("(?<name>basic.Foo.*)", "(?<name>basic.Bar.*)", "\\Qbasic.Baz");
+
+    assertThat(filter.findMatchingPattern("basic.FooTest#testFoo()").isPresent(), is(true));
+    assertThat(filter.findMatchingPattern("basic.BarTest#testBar()").isPresent(), is(true));
+    assertThat(filter.findMatchingPattern("basic.Baz").get(), is("\\Qbasic.Baz"));
+    assertThat(filter.findMatchingPattern("basic.BazTest#testBaz()").isPresent(), is(false));
+  }
+
   /**
    * Creates a new glob filter from the specified patterns.
    *
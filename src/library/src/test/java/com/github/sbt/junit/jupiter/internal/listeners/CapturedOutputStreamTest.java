@@ -21,6 +21,7 @@ package com.github.sbt.junit.jupiter.internal.listeners;
 import static com.github.sbt.junit.jupiter.internal.listeners.OutputCapturingTestListener.CapturedOutputStream;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
 
 import java.io.PrintStream;
 import org.junit.Test;
@@ -49,8 +50,39 @@ public class CapturedOutputStreamTest {
     PrintStream out = new PrintStream(buffer, true);
     out.print("First line \nSecond line");
 
+    assertThat(buffer.output, contains("First line "));
+
+    out.close();
+
     assertThat(buffer.output, contains("First line ", "Second line"));
   }
 
+  @Test
+  public void shouldJoinLinesSpanningMultipleWrites() {
+
+    CapturedOutputStream buffer = new CapturedOutputStream(this::devNull);
+
+    PrintStream out = new PrintStream(buffer, true);
+    out.print("First ");
+    out.flush();
+    out.print("line\r\n\nSecond line\n");
+
+    assertThat(buffer.output, contains("First line", "Second line"));
+  }
+
+  @Test
+  public void shouldRetainLastLinesOnly() {
+
+    CapturedOutputStream buffer = new CapturedOutputStream(this::devNull, 2);
+
+    PrintStream out = new PrintStream(buffer, true);
+    out.println("First line");
+    out.println("Second line");
+    out.println("Third line");
+
+    assertThat(buffer.output, contains("Second line", "Third line"));
+    assertThat(buffer.droppedLines, is(1));
+  }
+
   private void devNull(String str) {}
 }
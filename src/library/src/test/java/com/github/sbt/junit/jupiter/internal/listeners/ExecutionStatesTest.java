@@ -0,0 +1,114 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal.listeners;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import com.github.sbt.junit.jupiter.internal.listeners.ExecutionStates.ExecutionState;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.UniqueId;
+import org.junit.platform.engine.support.descriptor.AbstractTestDescriptor;
+import org.junit.platform.launcher.TestIdentifier;
+
+public class ExecutionStatesTest {
+
+  private final ExecutionStates executionStates = new ExecutionStates();
+
+  @Test
+  public void shouldShareStatePerIdentifier() {
+
+    ExecutionState state = executionStates.get(identifier("a"));
+
+    assertThat(executionStates.get(identifier("a")), sameInstance(state));
+    assertThat(executionStates.find(identifier("a")).get(), sameInstance(state));
+    assertThat(executionStates.find(identifier("b")).isPresent(), is(false));
+  }
+
+  @Test
+  public void shouldEvictStateWhenFinished() {
+
+    executionStates.get(identifier("a")).markStarted();
+    executionStates.get(identifier("b")).markStarted();
+    executionStates.executionFinished(identifier("a"), TestExecutionResult.successful());
+
+    assertThat(executionStates.find(identifier("a")).isPresent(), is(false));
+    assertThat(executionStates.size(), is(1));
+  }
+
+  @Test
+  public void shouldMeasureDurationFromFirstStart() throws Exception {
+
+    ExecutionState state = executionStates.get(identifier("a"));
+    assertThat(state.durationNanos(), is(0L));
+
+    state.markStarted();
+    Thread.sleep(1);
+    long durationNanos = state.durationNanos();
+    state.markStarted();
+
+    assertThat(durationNanos, greaterThan(0L));
+    assertThat(state.durationNanos(), greaterThan(durationNanos));
+  }
+
+  @Test
+  public void shouldReportOnlyOnce() {
+
+    ExecutionState state = executionStates.get(identifier("a"));
+
+    assertThat(state.markReported(), is(true));
+    assertThat(state.markReported(), is(false));
+  }
+
+  @Test
+  public void shouldFormatNameOnce() {
+
+    ExecutionState state = executionStates.get(identifier("a"));
+    AtomicInteger count = new AtomicInteger();
+
+    state.formattedName(() -> "a" + count.incrementAndGet());
+
+    assertThat(state.formattedName(() -> "a" + count.incrementAndGet()), is("a1"));
+    assertThat(count.get(), is(1));
+  }
+
+  private static TestIdentifier identifier(String name) {
+
+    return TestIdentifier.from(
+        new DummyTestDescriptor(UniqueId.forEngine("engine").append("test", name), name));
+  }
+
+  private static class DummyTestDescriptor extends AbstractTestDescriptor {
+
+    DummyTestDescriptor(UniqueId uniqueId, String displayName) {
+
+      super(uniqueId, displayName);
+    }
+
+    @Override
+    public Type getType() {
+
+      return Type.TEST;
+    }
+  }
+}
@@ -0,0 +1,199 @@
+/*
+ * jupiter-interface
+ *
+ * Copyright (c) 2017, Michael Aichler.
+ * All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.sbt.junit.jupiter.internal.listeners;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import com.github.sbt.junit.jupiter.api.StreamPair;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class OutputCaptureTest {
+
+  private static final int THREADS = 8;
+  private static final int LINES = 1000;
+
+  private final PrintStream out = System.out;
+  private final PrintStream err = System.err;
+
+  @Before
+  public void setUp() {
+
+    OutputCapture.install(new StreamPair(out, err));
+  }
+
+  @After
+  public void tearDown() {
+
+    OutputCapture.uninstall();
+  }
+
+  @Test
+  public void shouldRestoreSystemStreamsAfterLastUninstall() throws Exception {
+
+    PrintStream delegate = System.out;
+
+    Thread thread = new Thread(() -> OutputCapture.install(new StreamPair(out, err)));
+    thread.start();
+    thread.join();
+
+    assertThat(System.out, sameInstance(delegate));
+
+    OutputCapture.uninstall();
+
+    assertThat(System.out, sameInstance(delegate));
+
+    OutputCapture.uninstall();
+    OutputCapture.install(new StreamPair(out, err));
+
+    assertThat(System.out, not(sameInstance(delegate)));
+  }
+
+  @Test
+  public void shouldNotStoreStateInSystemProperties() throws Exception {
+
+    Properties properties = System.getProperties();
+
+    assertThat(properties.keySet(), everyItem(instanceOf(String.class)));
+    assertThat(properties.values(), everyItem(instanceOf(String.class)));
+
+    properties.store(new ByteArrayOutputStream(), null);
+  }
+
+  @Test
+  public void shouldRedirectConcurrentWritesPerThread() throws Exception {
+
+    CountDownLatch start = new CountDownLatch(1);
+    List<ByteArrayOutputStream> buffers = new ArrayList<>();
+    List<Thread> threads = new ArrayList<>();
+
+    for (int i = 0; i < THREADS; i++) {
+
+      String line = "thread-" + i;
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      buffers.add(buffer);
+
+      threads.add(
+          new Thread(
+              () -> {
+                PrintStream stream = new PrintStream(buffer, true);
+                OutputCapture.register(stream, stream);
+                try {
+                  start.await();
+                  for (int j = 0; j < LINES; j++) {
+                    System.out.print(line + "\n");
+                  }
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                } finally {
+                  OutputCapture.deregister();
+                }
+              }));
+    }
+
+    threads.forEach(Thread::start);
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    for (int i = 0; i < THREADS; i++) {
+
+      StringBuilder expected = new StringBuilder();
+      for (int j = 0; j < LINES; j++) {
+        expected.append("thread-").append(i).append('\n');
+      }
+
+      assertThat(buffers.get(i).toString(), equalTo(expected.toString()));
+    }
+  }
+
+  @Test
+  public void shouldNotLockInstalledStreamWhenPrinting() throws Exception {
+
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    PrintStream delegate = System.out;
+
+    Thread thread =
+        new Thread(
+            () -> {
+              PrintStream stream = new PrintStream(buffer, true);
+              OutputCapture.register(stream, stream);
+              try {
+                System.out.println("line");
+                System.out.printf("%s%n", "format");
+                System.out.append("append").println();
+              } finally {
+                OutputCapture.deregister();
+              }
+            });
+
+    // printing must not wait for the installed stream, which is shared by all threads
+    synchronized (delegate) {
+      thread.start();
+      thread.join(10_000);
+    }
+
+    assertThat(thread.isAlive(), equalTo(false));
+    assertThat(buffer.toString(), equalTo(String.format("line%nformat%nappend%n")));
+  }
+
+  @Test
+  public void shouldSkipReleasedRegistrationInheritedByOtherThread() throws Exception {
+
+    ByteArrayOutputStream outer = new ByteArrayOutputStream();
+    ByteArrayOutputStream inner = new ByteArrayOutputStream();
+    CountDownLatch released = new CountDownLatch(1);
+
+    OutputCapture.register(new PrintStream(outer, true), err);
+    OutputCapture.register(new PrintStream(inner, true), err);
+
+    Thread thread =
+        new Thread(
+            () -> {
+              try {
+                released.await();
+                System.out.print("inherited\n");
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+            });
+
+    thread.start();
+    OutputCapture.deregister();
+    released.countDown();
+    thread.join();
+    OutputCapture.deregister();
+
+    assertThat(inner.toString(), equalTo(""));
+    assertThat(outer.toString(), equalTo("inherited\n"));
+  }
+}
@@ -229,6 +229,104 @@ public class OptionsParserTest {
     assertThat(options.getTestEngines(), contains("a.B", "c.D"));
   }
 
+  @Test
+  public void batchingIsDisabledByDefault() {
+    Options options = parse();
+    assertThat(options.getBatchSize(), is(0));
+    assertThat(options.isBatchByPackage(), is(false));
+  }
+
+  @Test
+  public void batchOptionsAreParsed() {
+    Options options = parse("--batch-size=25", "--batch-by-package");
+    assertThat(options.getBatchSize(), is(25));
+    assertThat(options.isBatchByPackage(), is(true));
+  }
+
+  @Test
+  public void nonPositiveBatchSizeThrowsIllegalArgumentException() {
+    IllegalArgumentException ex =
+        assertThrows(IllegalArgumentException.class, () -> parse("--batch-size=0"));
+    assertThat(ex.getMessage(), containsString("--batch-size=0"));
+  }
+
+  @Test
+  public void quietOutputLimitIsParsed() {
+    assertThat(parse().getQuietOutputLimit(), is(0));
+    assertThat(parse("--quiet-output-limit=100").getQuietOutputLimit(), is(100));
+  }
+
+  @Test
+  public void dispatchEventsTraceOptionsAreParsed() {
+    assertThat(parse().getDispatchEventsTracePath().isPresent(), is(false));
+    assertThat(
+        parse("--trace-dispatch-events").getDispatchEventsTracePath().get(),
+        is("target/jupiterDispatchEvents.log"));
+
+    Options options = parse("--trace-dispatch-events=events.jsonl", "--trace-format=jsonl");
+    assertThat(options.getDispatchEventsTracePath().get(), is("events.jsonl"));
+    assertThat(options.getDispatchEventsTraceFormat(), is("jsonl"));
+  }
+
+  @Test
+  public void unknownTraceFormatThrowsIllegalArgumentException() {
+    IllegalArgumentException ex =
+        assertThrows(IllegalArgumentException.class, () -> parse("--trace-format=xml"));
+    assertThat(ex.getMessage(), containsString("--trace-format=xml"));
+  }
+
+  @Test
+  public void durationsPathIsParsed() {
+    assertThat(parse().getDurationsPath().isPresent(), is(false));
+    assertThat(
+        parse("--durations-file=target/durations").getDurationsPath().get(),
+        is("target/durations"));
+  }
+
+  @Test
+  public void parallelIsParsed() {
+    assertThat(parse().isParallel(), is(false));
+    assertThat(parse("--parallel").isParallel(), is(true));
+  }
+
+  @Test
+  public void virtualThreadsIsParsed() {
+    assertThat(parse().isVirtualThreads(), is(false));
+    assertThat(parse("--virtual-threads").isVirtualThreads(), is(true));
+    assertThat(parse("--virtual-threads").getVirtualThreadsLimit(), is(0));
+
+    Options options = parse("--virtual-threads=4");
+    assertThat(options.isVirtualThreads(), is(true));
+    assertThat(options.getVirtualThreadsLimit(), is(4));
+  }
+
+  @Test
+  public void nonPositiveVirtualThreadsLimitThrowsIllegalArgumentException() {
+    IllegalArgumentException ex =
+        assertThrows(IllegalArgumentException.class, () -> parse("--virtual-threads=0"));
+    assertThat(ex.getMessage(), containsString("--virtual-threads=0"));
+  }
+
+  @Test
+  public void failedFirstOptionsAreParsed() {
+    assertThat(parse().getFailuresPath().isPresent(), is(false));
+    assertThat(parse().isFailFast(), is(false));
+
+    Options options = parse("--failures-file=target/failures", "--fail-fast");
+    assertThat(options.getFailuresPath().get(), is("target/failures"));
+    assertThat(options.isFailFast(), is(true));
+    assertThat(options.isRerunFailed(), is(false));
+    assertThat(parse("--rerun-failed").isRerunFailed(), is(true));
+  }
+
+  @Test
+  public void changedClassesFileIsParsed() {
+    assertThat(parse().getChangedClassesPath().isPresent(), is(false));
+    assertThat(
+        parse("--changed-classes-file=target/changed").getChangedClassesPath().get(),
+        is("target/changed"));
+  }
+
   private static Options parse(String... args) {
     return new OptionsParser().parse(args);
   }
@@ -105,6 +105,7 @@ public class TestRunner extends ExternalResource {
     JupiterRunner runner = new JupiterRunner(args, remoteArgs, classLoader, streamPair);
     Task[] tasks = runner.tasks(new TaskDef[] {createTaskDef(fullyQualifiedClassName)});
     tasks[0].execute(eventHandler, new Logger[] {logger});
+    runner.done();
   }
 
   private TaskDef createTaskDef(String fullyQualifiedName) {
@@ -0,0 +1,40 @@
+package jupiter.samples;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public class ConcurrencyLimitTests {
+
+  static final AtomicInteger running = new AtomicInteger();
+  public static final AtomicInteger maxRunning = new AtomicInteger();
+
+  private static void run() throws InterruptedException {
+    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+    Thread.sleep(50);
+    running.decrementAndGet();
+  }
+
+  static class First {
+
+    @Test
+    void testMethod() throws InterruptedException {
+      run();
+    }
+  }
+
+  static class Second {
+
+    @Test
+    void testMethod() throws InterruptedException {
+      run();
+    }
+  }
+
+  static class Third {
+
+    @Test
+    void testMethod() throws InterruptedException {
+      run();
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package jupiter.samples;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+@TestMethodOrder(MethodOrderer.MethodName.class)
+class FailingTests {
+
+  @Test
+  void firstTestMethod() {
+    fail("expected failure");
+  }
+
+  @Test
+  void secondTestMethod() {}
+}
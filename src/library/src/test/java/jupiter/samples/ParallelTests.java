@@ -0,0 +1,29 @@
+package jupiter.samples;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class ParallelTests {
+
+  static final CountDownLatch running = new CountDownLatch(2);
+
+  @Test
+  void firstTestMethod() throws InterruptedException {
+    awaitOther("first");
+  }
+
+  @Test
+  void secondTestMethod() throws InterruptedException {
+    awaitOther("second");
+  }
+
+  private static void awaitOther(String name) throws InterruptedException {
+    System.out.println(name + " started");
+    running.countDown();
+    assertTrue(running.await(10, TimeUnit.SECONDS), "tests were not executed concurrently");
+    System.out.println(name + " finished");
+  }
+}
@@ -0,0 +1,17 @@
+package jupiter.samples;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class SlowSetupTests {
+
+  static final long SETUP_MILLIS = 100;
+
+  @BeforeAll
+  static void setUp() throws InterruptedException {
+    Thread.sleep(SETUP_MILLIS);
+  }
+
+  @Test
+  void firstTestMethod() {}
+}
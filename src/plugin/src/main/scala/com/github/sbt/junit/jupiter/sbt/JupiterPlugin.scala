@@ -18,13 +18,20 @@
  */
 package com.github.sbt.junit.jupiter.sbt
 
-import java.net.URLClassLoader
+import java.io.IOException
+import java.lang.reflect.InvocationTargetException
+import java.util.jar.JarFile
 
 import com.github.sbt.junit.jupiter.api.JupiterFramework
 import com.github.sbt.junit.jupiter.api.JupiterTestCollector
+import com.github.sbt.junit.jupiter.api.TestOrder
+import com.github.sbt.junit.jupiter.api.TestShards
 import sbt.Keys.testFrameworks
 import sbt.Keys.*
+import sbt.internal.inc.Analysis
 import sbt.plugins.JvmPlugin
+import sbt.testing.Fingerprint
+import sbt.testing.Selector
 import sbt.AutoPlugin
 import sbt.Def
 import sbt.*
@@ -66,6 +73,29 @@ object Import {
       settingKey("Fully-qualified class names of TestExecutionListener implementations to manually register (default empty)")
     val jupiterPostDiscoveryFilters: SettingKey[Seq[String]] =
       settingKey("Fully-qualified class names of PostDiscoveryFilter implementations to manually register (default empty)")
+
+    val jupiterDiscoveryCacheEnabled: SettingKey[Boolean] =
+      settingKey("Cache test discovery results so that only changed class files are discovered again (default true)")
+    val jupiterDurationOrderingEnabled: SettingKey[Boolean] =
+      settingKey("Record test class durations and execute the slowest test classes first (default false)")
+    val jupiterFailedFirstEnabled: SettingKey[Boolean] =
+      settingKey("Record failed tests and execute the test classes which failed previously first (default false)")
+    val jupiterChangedFirstEnabled: SettingKey[Boolean] =
+      settingKey("Execute the test classes whose class files changed since they have been executed last first, requires the discovery cache (default false)")
+    val jupiterFailFast: SettingKey[Boolean] =
+      settingKey("Skip all remaining tests after the first test failure (default false)")
+    val jupiterParallelExecutionEnabled: SettingKey[Boolean] =
+      settingKey("Execute the tests of each test class concurrently using JUnit Jupiter's parallel execution (default false)")
+
+    val jupiterSharedClassLoaderEnabled: SettingKey[Boolean] =
+      settingKey("Discover tests in the class loader which also executes them, unless tests are forked (default true)")
+
+    val jupiterShardIndex: SettingKey[Int] =
+      settingKey("Zero-based index of the shard of test classes which should be executed (default 0)")
+    val jupiterShardCount: SettingKey[Int] =
+      settingKey("Number of shards into which test classes are partitioned, e.g. one per CI machine (default 1)")
+    val jupiterShardDurationsFile: SettingKey[Option[File]] =
+      settingKey("Recorded test class durations which are used to balance shards (default None)")
   }
 }
 
@@ -99,7 +129,17 @@ object JupiterPlugin extends AutoPlugin {
     jupiterLauncherSessionListeners := Seq.empty[String],
     jupiterLauncherDiscoveryListeners := Seq.empty[String],
     jupiterTestExecutionListeners := Seq.empty[String],
-    jupiterPostDiscoveryFilters := Seq.empty[String]
+    jupiterPostDiscoveryFilters := Seq.empty[String],
+    jupiterDiscoveryCacheEnabled := true,
+    jupiterDurationOrderingEnabled := false,
+    jupiterFailedFirstEnabled := false,
+    jupiterChangedFirstEnabled := false,
+    jupiterFailFast := false,
+    jupiterParallelExecutionEnabled := false,
+    jupiterSharedClassLoaderEnabled := true,
+    jupiterShardIndex := 0,
+    jupiterShardCount := 1,
+    jupiterShardDurationsFile := None
   )
 
   override def projectSettings: Seq[Def.Setting[?]] = inConfig(Test)(scopedSettings) ++ unscopedSettings
@@ -112,7 +152,11 @@ object JupiterPlugin extends AutoPlugin {
    * By default this is applied to the Test configuration only.
    */
   def scopedSettings: Seq[Def.Setting[?]] = Seq(
-    definedTests ++= collectTests.value,
+    definedTests ++= {
+      // discovery failures have to be a direct cause of definedTests, so they are not wrapped
+      val discoveredTests = collectTests.value
+      orderTests.value(shardTests.value(discoveredTests))
+    },
     testOptions += Tests.Argument(jupiterTestFramework,
       s"--test-engine-auto-registration=${jupiterTestEngineAutoRegistrationEnabled.value}",
       s"--launcher-session-listener-auto-registration=${jupiterLauncherSessionListenerAutoRegistrationEnabled.value}",
@@ -123,7 +167,22 @@ object JupiterPlugin extends AutoPlugin {
       s"--launcher-session-listeners=${jupiterLauncherSessionListeners.value.mkString(",")}",
       s"--launcher-discovery-listeners=${jupiterLauncherDiscoveryListeners.value.mkString(",")}",
       s"--test-execution-listeners=${jupiterTestExecutionListeners.value.mkString(",")}",
-      s"--post-discovery-filters=${jupiterPostDiscoveryFilters.value.mkString(",")}")
+      s"--post-discovery-filters=${jupiterPostDiscoveryFilters.value.mkString(",")}"),
+    testOptions ++= {
+      val cacheDirectory = streams.value.cacheDirectory
+      // the changed classes are stored by test discovery, i.e. in the cache of definedTests
+      val discoveryCacheDirectory = (definedTests / streams).value.cacheDirectory
+      val args =
+        (if (jupiterDurationOrderingEnabled.value)
+          Seq(s"--durations-file=${(cacheDirectory / "jupiter-durations").getAbsolutePath}") else Nil) ++
+        (if (jupiterFailedFirstEnabled.value)
+          Seq(s"--failures-file=${(cacheDirectory / "jupiter-failures").getAbsolutePath}") else Nil) ++
+        (if (jupiterChangedFirstEnabled.value && jupiterDiscoveryCacheEnabled.value)
+          Seq(s"--changed-classes-file=${(discoveryCacheDirectory / "jupiter-changed-classes").getAbsolutePath}") else Nil) ++
+        (if (jupiterFailFast.value) Seq("--fail-fast") else Nil) ++
+        (if (jupiterParallelExecutionEnabled.value) Seq("--parallel") else Nil)
+      if (args.nonEmpty) Seq(Tests.Argument(jupiterTestFramework, args*)) else Seq.empty
+    }
   )
 
   /*
@@ -135,66 +194,230 @@ object JupiterPlugin extends AutoPlugin {
 
   /*
    * Collects available tests through JUnit Jupiter's discovery mechanism.
+   *
+   * Unless tests are forked, discovery runs in the class loader which also executes the tests, so
+   * that test classes and their dependencies are loaded only once. Otherwise, or if the runtime
+   * library on the test classpath does not support this, tests are discovered in a class loader of
+   * this plugin which caches the dependency jars. Either way, the dependency classpath identifies
+   * cached discovery results, so that these are discarded whenever a dependency changes.
    */
   private def collectTests = Def.task[Seq[TestDefinition]] {
     val classes = classDirectory.value
     val classpath = JupiterPluginCompat.dependencyClasspathUrlArray.value :+ classes.toURI.toURL
+    val cacheDirectory = streams.value.cacheDirectory
+    val cacheFile =
+      if (jupiterDiscoveryCacheEnabled.value) cacheDirectory / "jupiter-discovery.cache"
+      else null
+    val changedClassesFile =
+      if (jupiterChangedFirstEnabled.value && null != cacheFile) cacheDirectory / "jupiter-changed-classes"
+      else null
+    val sharedLoader = sharedTestLoader.value
+
+    val settings: Seq[(String, Class[?], AnyRef)] = Seq(
+      ("withClassDirectory", classOf[File], classes),
+      ("withDiscoveryCacheFile", classOf[File], cacheFile),
+      ("withChangedClassesFile", classOf[File], changedClassesFile),
+      ("withClassFileStamps", classOf[java.util.Map[?, ?]], classFileStamps.value),
+      ("withTestEngineAutoRegistrationEnabled", java.lang.Boolean.TYPE,
+        Boolean.box(jupiterTestEngineAutoRegistrationEnabled.value)),
+      ("withLauncherSessionListenerAutoRegistrationEnabled", java.lang.Boolean.TYPE,
+        Boolean.box(jupiterLauncherSessionListenerAutoRegistrationEnabled.value)),
+      ("withLauncherDiscoveryListenerAutoRegistrationEnabled", java.lang.Boolean.TYPE,
+        Boolean.box(jupiterLauncherDiscoveryListenerAutoRegistrationEnabled.value)),
+      ("withTestExecutionListenerAutoRegistrationEnabled", java.lang.Boolean.TYPE,
+        Boolean.box(jupiterTestExecutionListenerAutoRegistrationEnabled.value)),
+      ("withPostDiscoveryFilterAutoRegistrationEnabled", java.lang.Boolean.TYPE,
+        Boolean.box(jupiterPostDiscoveryFilterAutoRegistrationEnabled.value)),
+      ("withTestEngines", classOf[java.util.List[?]], jupiterTestEngines.value.asJava),
+      ("withLauncherSessionListeners", classOf[java.util.List[?]], jupiterLauncherSessionListeners.value.asJava),
+      ("withLauncherDiscoveryListeners", classOf[java.util.List[?]], jupiterLauncherDiscoveryListeners.value.asJava),
+      ("withTestExecutionListeners", classOf[java.util.List[?]], jupiterTestExecutionListeners.value.asJava),
+      ("withPostDiscoveryFilters", classOf[java.util.List[?]], jupiterPostDiscoveryFilters.value.asJava)
+    )
+
+    val sharedSettings = settings ++ Seq(
+      ("withClassLoader", classOf[ClassLoader], sharedLoader.orNull),
+      ("withRuntimeClassPath", classOf[Array[URL]], classpath),
+      ("withSharedClassLoaderEnabled", java.lang.Boolean.TYPE, java.lang.Boolean.TRUE))
+
+    // falls back to discovery in the plugin's class loader only if the runtime library on the test
+    // classpath does not provide the required builder, while discovery failures are rethrown
+    val sharedTests = sharedLoader
+      .flatMap(loader => resolveBuilder(loader, sharedSettings))
+      .map(builderClass => discoverTests(builderClass, sharedSettings))
 
-    val collector = new JupiterTestCollector.Builder()
-      .withClassDirectory(classes)
-      .withClassLoader(getClass.getClassLoader)
-      .withRuntimeClassPath(classpath)
-      .withTestEngineAutoRegistrationEnabled(jupiterTestEngineAutoRegistrationEnabled.value)
-      .withLauncherSessionListenerAutoRegistrationEnabled(jupiterLauncherSessionListenerAutoRegistrationEnabled.value)
-      .withLauncherDiscoveryListenerAutoRegistrationEnabled(jupiterLauncherDiscoveryListenerAutoRegistrationEnabled.value)
-      .withTestExecutionListenerAutoRegistrationEnabled(jupiterTestExecutionListenerAutoRegistrationEnabled.value)
-      .withPostDiscoveryFilterAutoRegistrationEnabled(jupiterPostDiscoveryFilterAutoRegistrationEnabled.value)
-      .withTestEngines(jupiterTestEngines.value.asJava)
-      .withLauncherSessionListeners(jupiterLauncherSessionListeners.value.asJava)
-      .withLauncherDiscoveryListeners(jupiterLauncherDiscoveryListeners.value.asJava)
-      .withTestExecutionListeners(jupiterTestExecutionListeners.value.asJava)
-      .withPostDiscoveryFilters(jupiterPostDiscoveryFilters.value.asJava)
-      .build()
-
-    val discoveredTests = collector.collectTests().getDiscoveredTests.asScala.toList.map(toTestDefinition)
-    if (discoveredTests.nonEmpty) {
-      if (!hasRuntimeLibrary(classpath)) {
-        throw new RuntimeException(
-          "Found at least one JUnit 5 test silently ignored by SBT due to `jupiter-interface` " +
-            "not being on this projects test-classpath."
-        )
+    sharedTests.getOrElse {
+      val discoveredTests = discoverTests(classOf[JupiterTestCollector.Builder], settings ++ Seq(
+        ("withClassLoader", classOf[ClassLoader], getClass.getClassLoader),
+        ("withRuntimeClassPath", classOf[Array[URL]], classpath)))
+
+      if (discoveredTests.nonEmpty) {
+        if (!hasRuntimeLibrary(classpath)) {
+          throw new RuntimeException(
+            "Found at least one JUnit 5 test silently ignored by SBT due to `jupiter-interface` " +
+              "not being on this projects test-classpath."
+          )
+        }
       }
+
+      discoveredTests
+    }
+  }
+
+  /*
+   * The class loader which executes the tests, if tests are discovered in it as well. The test
+   * loader is only requested in that case, so forked test runs do not create it.
+   */
+  private def sharedTestLoader = Def.taskDyn[Option[ClassLoader]] {
+    if (jupiterSharedClassLoaderEnabled.value && !fork.value) Def.task(Option(testLoader.value))
+    else Def.task(Option.empty[ClassLoader])
+  }
+
+  /*
+   * Resolves the collector builder of the given class loader, if the runtime library loaded by it
+   * supports all of the given settings.
+   */
+  private def resolveBuilder(loader:ClassLoader, settings:Seq[(String, Class[?], AnyRef)]):Option[Class[?]] = {
+    try {
+      val builderClass = loader.loadClass(classOf[JupiterTestCollector.Builder].getName)
+      builderClass.getConstructor()
+      builderClass.getMethod("build")
+      settings.foreach { case (name, parameterType, _) => builderClass.getMethod(name, parameterType) }
+      Some(builderClass)
+    }
+    catch {
+      case _:ReflectiveOperationException | _:LinkageError =>
+        None
+    }
+  }
+
+  /*
+   * Builds a collector through the given builder class and collects its tests. The builder is
+   * accessed reflectively, because it may be loaded by the test class loader.
+   */
+  private def discoverTests(builderClass:Class[?], settings:Seq[(String, Class[?], AnyRef)]):Seq[TestDefinition] = {
+
+    val builder = unwrapped(builderClass.getConstructor().newInstance().asInstanceOf[AnyRef])
+    settings.foreach { case (name, parameterType, value) =>
+      unwrapped(builderClass.getMethod(name, parameterType).invoke(builder, value))
+    }
+
+    val collector = invoke(builder, "build")
+    val result = invoke(collector, "collectTests")
+
+    invoke(result, "getDiscoveredTests").asInstanceOf[java.util.List[AnyRef]].asScala.toList.map(toTestDefinition)
+  }
+
+  private def invoke(target:AnyRef, name:String):AnyRef = {
+    unwrapped(target.getClass.getMethod(name).invoke(target))
+  }
+
+  /*
+   * Rethrows the cause of reflectively invoked methods, e.g. a failed test discovery.
+   */
+  private def unwrapped[T](invocation: => T):T = {
+    try invocation
+    catch {
+      case e:InvocationTargetException =>
+        throw e.getCause
     }
+  }
 
-    discoveredTests
-  }.dependsOn(compile)
+  /*
+   * Selects the tests of the configured shard, if tests are partitioned into multiple shards.
+   */
+  private def shardTests = Def.task[Seq[TestDefinition] => Seq[TestDefinition]] {
+    val shardIndex = jupiterShardIndex.value
+    val shardCount = jupiterShardCount.value
+    val durationsFile = jupiterShardDurationsFile.value.orNull
+    discoveredTests =>
+      if (shardCount > 1) {
+        val selected = TestShards.select(discoveredTests.map(_.name).asJava, shardIndex, shardCount, durationsFile)
+        discoveredTests.filter(test => selected.contains(test.name))
+      } else discoveredTests
+  }
+
+  /*
+   * Orders the tests, so that failed, changed and slow tests are executed first. SBT executes tests
+   * in the order of their definitions, regardless of the order of the tasks created by the runner.
+   */
+  private def orderTests = Def.task[Seq[TestDefinition] => Seq[TestDefinition]] {
+    // durations and failures are stored by the runner, i.e. in the cache of testOptions
+    val runnerCacheDirectory = (testOptions / streams).value.cacheDirectory
+    val cacheDirectory = streams.value.cacheDirectory
+    val durationsFile =
+      if (jupiterDurationOrderingEnabled.value) runnerCacheDirectory / "jupiter-durations"
+      else null
+    val failuresFile =
+      if (jupiterFailedFirstEnabled.value) runnerCacheDirectory / "jupiter-failures"
+      else null
+    val changedClassesFile =
+      if (jupiterChangedFirstEnabled.value && jupiterDiscoveryCacheEnabled.value)
+        cacheDirectory / "jupiter-changed-classes"
+      else null
+
+    discoveredTests =>
+      if (null != durationsFile || null != failuresFile || null != changedClassesFile) {
+        val order = TestOrder.order(discoveredTests.map(_.name).asJava, durationsFile, failuresFile, changedClassesFile)
+          .asScala.zipWithIndex.toMap
+        discoveredTests.sortBy(test => order(test.name))
+      } else discoveredTests
+  }
+
+  /*
+   * Collects the stamps of all class products from the compile analysis, so that
+   * changed classes are known without scanning the class directory.
+   */
+  private def classFileStamps = Def.task[java.util.Map[File, String]] {
+    val converter = fileConverter.value
+    compile.value match {
+      case analysis: Analysis =>
+        val stamps = analysis.stamps
+        stamps.allProducts.map(p => converter.toPath(p).toFile -> stamps.product(p).toString).toMap.asJava
+      case _ =>
+        null
+    }
+  }
 
   /*
    * Checks whether this plugins runtime library is on the given classpath.
+   *
+   * Instead of loading the framework class, its class file is looked up in each directory and in the
+   * central directory of each jar, starting with jars which are named like the runtime library.
    */
   private def hasRuntimeLibrary(classpath:Array[URL]):Boolean = {
 
-    val runtimeClassLoader = new URLClassLoader(classpath)
+    val entryName = classOf[JupiterFramework].getName.replace('.', '/') + ".class"
+    val files = classpath.toSeq
+      .filter(_.getProtocol == "file")
+      .map(url => new File(url.toURI))
+      .sortBy(file => !file.getName.startsWith("jupiter-interface"))
+
+    files.exists { file =>
+      if (file.isDirectory) new File(file, entryName).isFile
+      else file.isFile && hasJarEntry(file, entryName)
+    }
+  }
+
+  private def hasJarEntry(file:File, entryName:String):Boolean = {
 
     try {
-      runtimeClassLoader.loadClass(classOf[JupiterFramework].getName)
-      true
+      val jarFile = new JarFile(file)
+      try jarFile.getEntry(entryName) != null
+      finally jarFile.close()
     }
     catch {
-      case _:ClassNotFoundException =>
+      case _:IOException =>
         false
     }
-    finally {
-        runtimeClassLoader.close()
-    }
   }
 
-  private def toTestDefinition(item:JupiterTestCollector.Item) = {
+  private def toTestDefinition(item:AnyRef) = {
     new TestDefinition(
-      item.getFullyQualifiedClassName,
-      item.getFingerprint,
-      item.isExplicit,
-      item.getSelectors)
+      invoke(item, "getFullyQualifiedClassName").asInstanceOf[String],
+      invoke(item, "getFingerprint").asInstanceOf[Fingerprint],
+      invoke(item, "isExplicit").asInstanceOf[java.lang.Boolean].booleanValue,
+      invoke(item, "getSelectors").asInstanceOf[Array[Selector]])
   }
 
   private def readResourceProperty(resource: String, property: String): String = {
@@ -0,0 +1,29 @@
+package jupiter;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class ParallelTest {
+
+    static final CountDownLatch running = new CountDownLatch(2);
+
+    @Test
+    void first() throws InterruptedException {
+        awaitOther("first");
+    }
+
+    @Test
+    void second() throws InterruptedException {
+        awaitOther("second");
+    }
+
+    private static void awaitOther(String name) throws InterruptedException {
+        System.out.println(name + " started");
+        running.countDown();
+        assertTrue(running.await(5, TimeUnit.SECONDS), "tests were not executed concurrently");
+        System.out.println(name + " finished");
+    }
+}